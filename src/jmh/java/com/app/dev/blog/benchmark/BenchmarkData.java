@@ -0,0 +1,62 @@
+package com.app.dev.blog.benchmark;
+
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.model.CommentEntity;
+import com.app.dev.blog.model.PostEntity;
+
+/**
+ * Rows of roughly production size shared by the benchmarks.
+ */
+final class BenchmarkData {
+	
+	private static final String CONTENT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(4);
+	
+	private BenchmarkData() {
+	}
+	
+	static PostEntity postEntity(long id) {
+		return PostEntity.builder()
+						 .id(id)
+						 .title("Benchmark post " + id)
+						 .description("Description of benchmark post " + id)
+						 .content(CONTENT)
+						 .version(0L)
+						 .commentCount(id % 50)
+						 .build();
+	}
+	
+	static PostDto postDto(long id) {
+		PostDto postDto = newPostDto(id);
+		postDto.setId(id);
+		postDto.setVersion(0L);
+		postDto.setCommentCount(id % 50);
+		return postDto;
+	}
+	
+	static PostDto newPostDto(long n) {
+		return PostDto.builder()
+					  .title("Benchmark post " + n)
+					  .description("Description of benchmark post " + n)
+					  .content(CONTENT)
+					  .build();
+	}
+	
+	static CommentEntity commentEntity(long id) {
+		return CommentEntity.builder()
+							.id(id)
+							.name("Reader " + id)
+							.email("reader" + id + "@example.com")
+							.body("A comment that is long enough to pass validation, number " + id)
+							.version(0L)
+							.build();
+	}
+	
+	static CommentDto commentDto(long id) {
+		return CommentDto.builder()
+						 .name("Reader " + id)
+						 .email("reader" + id + "@example.com")
+						 .body("A comment that is long enough to pass validation, number " + id)
+						 .build();
+	}
+}
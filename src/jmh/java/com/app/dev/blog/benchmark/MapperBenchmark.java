@@ -0,0 +1,74 @@
+package com.app.dev.blog.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.mapper.CommentMapper;
+import com.app.dev.blog.mapper.PostMapper;
+import com.app.dev.blog.model.CommentEntity;
+import com.app.dev.blog.model.PostEntity;
+
+/**
+ * MapStruct conversions on the read paths, single rows and whole result lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+	
+	@Param({"10", "1000", "100000"})
+	private int size;
+	
+	private PostMapper postMapper;
+	
+	private CommentMapper commentMapper;
+	
+	private PostEntity postEntity;
+	
+	private List<PostEntity> postEntities;
+	
+	private List<CommentEntity> commentEntities;
+	
+	@Setup
+	public void setUp() {
+		postMapper = Mappers.getMapper(PostMapper.class);
+		commentMapper = Mappers.getMapper(CommentMapper.class);
+		postEntities = LongStream.rangeClosed(1, size).mapToObj(BenchmarkData::postEntity).toList();
+		commentEntities = LongStream.rangeClosed(1, size).mapToObj(BenchmarkData::commentEntity).toList();
+		postEntity = postEntities.get(0);
+	}
+	
+	@Benchmark
+	public PostDto convertPostEntityToDto() {
+		return postMapper.convertPostEntityToDto(postEntity);
+	}
+	
+	@Benchmark
+	public List<PostDto> convertPostEntityListToPostDtoList() {
+		return postMapper.convertPosEntitytListToPostDtoList(postEntities);
+	}
+	
+	@Benchmark
+	public List<CommentDto> convertCommentEntityListToDtoList() {
+		return commentMapper.convertCommentEntityListToDtoList(commentEntities);
+	}
+}
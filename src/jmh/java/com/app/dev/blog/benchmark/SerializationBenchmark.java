@@ -0,0 +1,53 @@
+package com.app.dev.blog.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.app.dev.blog.dtos.PostPageDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of a listing page, with the defaults Spring Boot
+ * applies to the application's ObjectMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+	
+	@Param({"10", "100"})
+	private int pageSize;
+	
+	private ObjectMapper objectMapper;
+	
+	private PostPageDto postPageDto;
+	
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		postPageDto = new PostPageDto(LongStream.rangeClosed(1, pageSize).mapToObj(BenchmarkData::postDto).toList(),
+				0, pageSize, 10_000, 10_000 / pageSize, false);
+	}
+	
+	@Benchmark
+	public byte[] writePostPage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(postPageDto);
+	}
+}
@@ -0,0 +1,123 @@
+package com.app.dev.blog.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.dev.blog.BlogRestApiApplication;
+import com.app.dev.blog.dtos.CommentCursorPageDto;
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.PostCursorPageDto;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.dtos.PostSliceDto;
+import com.app.dev.blog.service.CommentService;
+import com.app.dev.blog.service.PostService;
+import com.app.dev.blog.util.PostConstant;
+
+/**
+ * Read paths of {@link PostService} and {@link CommentService} through the full
+ * Spring context, including caching and transactions, against an embedded H2
+ * database. H2 runs in MySQL mode with the MySQL dialect, so Hibernate issues
+ * the same statements it does in production, e.g. the table backed comment
+ * sequence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+	
+	private static final int POSTS = 1000;
+	
+	private static final int COMMENTS_PER_POST = 200;
+	
+	private ConfigurableApplicationContext context;
+	
+	private PostService postService;
+	
+	private CommentService commentService;
+	
+	private long postId;
+	
+	private String nextPostsCursor;
+	
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BlogRestApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+						"spring.datasource.driver-class-name=org.h2.Driver",
+						"spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+						"spring.jpa.hibernate.ddl-auto=create-drop",
+						"spring.jpa.show-sql=false",
+						"spring.docker.compose.enabled=false",
+						"logging.level.root=warn")
+				.run();
+		postService = context.getBean(PostService.class);
+		commentService = context.getBean(CommentService.class);
+		
+		for (long i = 1; i <= POSTS; i++) {
+			PostDto created = postService.createPost(BenchmarkData.newPostDto(i));
+			if (i == 1) {
+				postId = created.getId();
+			}
+		}
+		List<CommentDto> comments = LongStream.rangeClosed(1, COMMENTS_PER_POST).mapToObj(BenchmarkData::commentDto).toList();
+		commentService.createComments(postId, comments);
+		nextPostsCursor = postService.getPostsAfter(null, 10, PostConstant.DEFAULT_SORT_BY, PostConstant.DEFAULT_SORT_DIR)
+									 .getNextCursor();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public PostPageDto getAllPosts() {
+		return postService.getAllPosts(50, 10, PostConstant.DEFAULT_SORT_BY, PostConstant.DEFAULT_SORT_DIR);
+	}
+	
+	@Benchmark
+	public PostSliceDto getPostSlice() {
+		return postService.getPostSlice(50, 10, PostConstant.DEFAULT_SORT_BY, PostConstant.DEFAULT_SORT_DIR);
+	}
+	
+	@Benchmark
+	public PostCursorPageDto getPostsAfter() {
+		return postService.getPostsAfter(nextPostsCursor, 10, PostConstant.DEFAULT_SORT_BY, PostConstant.DEFAULT_SORT_DIR);
+	}
+	
+	@Benchmark
+	public PostDto getPostById() {
+		return postService.getPostById(postId);
+	}
+	
+	@Benchmark
+	public List<CommentDto> getCommentsByPostId() {
+		return commentService.getCommentsByPostId(postId);
+	}
+	
+	@Benchmark
+	public CommentCursorPageDto getCommentsAfter() {
+		return commentService.getCommentsAfter(postId, null, 20);
+	}
+}
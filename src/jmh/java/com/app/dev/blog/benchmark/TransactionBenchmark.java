@@ -0,0 +1,138 @@
+package com.app.dev.blog.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dev.blog.BlogRestApiApplication;
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.CommentUpdateDto;
+import com.app.dev.blog.mapper.CommentMapper;
+import com.app.dev.blog.model.CommentEntity;
+import com.app.dev.blog.repository.CommentRepository;
+import com.app.dev.blog.service.CommentService;
+import com.app.dev.blog.service.PostService;
+
+/**
+ * Cost of the transaction boundaries around the comment read and update paths.
+ * The read benchmarks run the query and mapping of
+ * {@link CommentService#getCommentsByPostId} in the repository's own
+ * transaction, in one read-write transaction, and in one read-only transaction,
+ * which skips the loaded state snapshots and the dirty check on commit. The
+ * update benchmarks compare {@link CommentService#updateComment}, a single
+ * transaction, with the same steps run without one, where the save has to merge
+ * a detached entity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionBenchmark {
+
+	private static final int COMMENTS_PER_POST = 200;
+
+	private ConfigurableApplicationContext context;
+
+	private CommentService commentService;
+
+	private CommentRepository commentRepository;
+
+	private CommentMapper commentMapper;
+
+	private TransactionTemplate readWrite;
+
+	private TransactionTemplate readOnly;
+
+	private long postId;
+
+	private long commentId;
+
+	private long updates;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BlogRestApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:transactions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+						"spring.datasource.driver-class-name=org.h2.Driver",
+						"spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+						"spring.jpa.hibernate.ddl-auto=create-drop",
+						"spring.jpa.show-sql=false",
+						"spring.docker.compose.enabled=false",
+						"logging.level.root=warn")
+				.run();
+		commentService = context.getBean(CommentService.class);
+		commentRepository = context.getBean(CommentRepository.class);
+		commentMapper = context.getBean(CommentMapper.class);
+
+		PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		postId = context.getBean(PostService.class).createPost(BenchmarkData.newPostDto(1)).getId();
+		List<CommentDto> comments = LongStream.rangeClosed(1, COMMENTS_PER_POST).mapToObj(BenchmarkData::commentDto).toList();
+		commentId = commentService.createComments(postId, comments).get(0).getId();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	private List<CommentDto> readComments() {
+		return commentMapper.convertCommentEntityListToDtoList(commentRepository.findByPostEntity_Id(postId));
+	}
+
+	@Benchmark
+	public List<CommentDto> readPerCall() {
+		return this.readComments();
+	}
+
+	@Benchmark
+	public List<CommentDto> readInReadWriteTransaction() {
+		return readWrite.execute(status -> this.readComments());
+	}
+
+	@Benchmark
+	public List<CommentDto> readInReadOnlyTransaction() {
+		return readOnly.execute(status -> this.readComments());
+	}
+
+	private CommentUpdateDto nextUpdate() {
+		return CommentUpdateDto.builder()
+							   .body("An edited comment, long enough to pass validation, revision " + updates++)
+							   .build();
+	}
+
+	@Benchmark
+	public CommentDto updatePerCall() {
+		CommentEntity commentEntity = commentRepository.findByIdAndPostEntity_Id(commentId, postId).orElseThrow();
+		commentMapper.updateCommentEntity(this.nextUpdate(), commentEntity);
+		return commentMapper.convertCommentEntityToDto(commentRepository.save(commentEntity));
+	}
+
+	@Benchmark
+	public CommentDto updateInTransaction() {
+		return commentService.updateComment(postId, commentId, this.nextUpdate());
+	}
+}
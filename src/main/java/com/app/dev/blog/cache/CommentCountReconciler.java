@@ -0,0 +1,57 @@
+package com.app.dev.blog.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dev.blog.config.CacheConfig;
+import com.app.dev.blog.repository.PostRepository;
+
+/**
+ * Repairs drift in the denormalized {@code comment_count} column, e.g. from
+ * comments written around the service layer. Posts are walked in id ranges,
+ * one short transaction per range, so the job never locks the whole table.
+ */
+@Component
+public class CommentCountReconciler {
+	
+	private static final int BATCH_SIZE = 1000;
+	
+	private PostRepository postRepository;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private PostsVersion postsVersion;
+	
+	private CacheManager cacheManager;
+
+	public CommentCountReconciler(PostRepository postRepository, PlatformTransactionManager transactionManager,
+			PostsVersion postsVersion, CacheManager cacheManager) {
+		super();
+		this.postRepository = postRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.postsVersion = postsVersion;
+		this.cacheManager = cacheManager;
+	}
+	
+	@Scheduled(fixedDelayString = "${blog.posts.comment-count-reconcile-interval:PT1H}")
+	public int reconcile() {
+		long maxId = postRepository.findMaxId();
+		int repaired = 0;
+		for(long fromId = 1; fromId <= maxId; fromId += BATCH_SIZE) {
+			long from = fromId;
+			repaired += transactionTemplate.execute(status -> postRepository.reconcileCommentCounts(from, from + BATCH_SIZE - 1));
+		}
+		
+		if(repaired > 0) {
+			postsVersion.bump();
+			Cache posts = cacheManager.getCache(CacheConfig.POST_CACHE);
+			if(posts != null)
+				posts.clear();
+		}
+		return repaired;
+	}
+}
@@ -0,0 +1,48 @@
+package com.app.dev.blog.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app.dev.blog.repository.PostRepository;
+
+/**
+ * Keeps the number of posts in memory so listings don't pay for a COUNT(*) on
+ * every request. Local writes adjust it immediately, and it is reconciled with
+ * the table on a fixed delay to pick up writes made by other instances.
+ */
+@Component
+public class PostCountCache {
+	
+	private static final long UNKNOWN = -1;
+	
+	private final AtomicLong count = new AtomicLong(UNKNOWN);
+	
+	private PostRepository postRepository;
+
+	public PostCountCache(PostRepository postRepository) {
+		super();
+		this.postRepository = postRepository;
+	}
+	
+	public long get() {
+		long current = count.get();
+		return current == UNKNOWN ? this.refresh() : current;
+	}
+	
+	@Scheduled(fixedDelayString = "${blog.posts.count-refresh-interval:PT1M}")
+	public long refresh() {
+		long current = postRepository.count();
+		count.set(current);
+		return current;
+	}
+	
+	public void increment() {
+		count.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : current + 1);
+	}
+	
+	public void decrement() {
+		count.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : Math.max(0, current - 1));
+	}
+}
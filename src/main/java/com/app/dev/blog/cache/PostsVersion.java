@@ -0,0 +1,24 @@
+package com.app.dev.blog.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Global generation counter for post listings. It is part of every listing
+ * cache key, so bumping it on a write makes all cached pages unreachable at
+ * once and they simply age out of the cache.
+ */
+@Component
+public class PostsVersion {
+	
+	private final AtomicLong version = new AtomicLong();
+	
+	public long current() {
+		return version.get();
+	}
+	
+	public long bump() {
+		return version.incrementAndGet();
+	}
+}
@@ -0,0 +1,49 @@
+package com.app.dev.blog.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Caches are Caffeine backed and configured through {@code spring.cache.*};
+ * hit, miss and eviction counts are published as {@code cache.gets} and
+ * {@code cache.evictions} on the actuator metrics endpoint.
+ * <p>
+ * The cache manager is transaction aware: a put or evict made inside a
+ * transaction only reaches the cache once it commits, so a rolled back
+ * update is never cached and a concurrent reader cannot refill an evicted
+ * entry with the row as it was before the commit.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+	
+	public static final String POST_CACHE = "posts";
+	
+	public static final String POST_PAGE_CACHE = "postPages";
+	
+	/**
+	 * {@code unless} condition for the post caches. A replica read inside its
+	 * lag window can miss a write whose eviction or version bump already
+	 * happened, and caching it would serve that stale result long after the
+	 * replica has caught up.
+	 */
+	public static final String UNLESS_REPLICA_READ = "T(com.app.dev.blog.routing.RoutingContext).isReplicaRead()";
+	
+	@Bean
+	public CacheManager cacheManager(CacheProperties cacheProperties) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		if(StringUtils.hasText(cacheProperties.getCaffeine().getSpec()))
+			cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+		if(!cacheProperties.getCacheNames().isEmpty())
+			cacheManager.setCacheNames(cacheProperties.getCacheNames());
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
@@ -0,0 +1,58 @@
+package com.app.dev.blog.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.stereotype.Component;
+
+import com.app.dev.blog.model.CommentEntity;
+
+/**
+ * Comment ids come from the pooled {@code comments_seq} table so inserts can be
+ * batched. Rows written while the column was AUTO_INCREMENT would collide with
+ * a freshly created sequence, so it is moved past the highest id as soon as the
+ * entity manager factory has updated the schema, before anything can allocate
+ * ids from it.
+ * <p>
+ * The pooled optimizer treats the stored value as the top of the next block
+ * and hands out the {@code allocationSize} ids below it, so the sequence has to
+ * reach {@code maxId + allocationSize} for the first block to start past
+ * {@code maxId}.
+ */
+@Component
+public class CommentSequenceInitializer implements BeanPostProcessor {
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if(bean instanceof AbstractEntityManagerFactoryBean factoryBean)
+			this.moveSequencePastExistingIds(factoryBean);
+		return bean;
+	}
+
+	private void moveSequencePastExistingIds(AbstractEntityManagerFactoryBean factoryBean) {
+		SessionFactoryImplementor sessionFactory = factoryBean.getNativeEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class);
+		if(!(sessionFactory.getMappingMetamodel().getEntityDescriptor(CommentEntity.class)
+				.getIdentifierGenerator() instanceof SequenceStyleGenerator generator)
+				|| generator.getDatabaseStructure().isPhysicalSequence())
+			return;
+
+		DataSource dataSource = factoryBean.getDataSource();
+		if(dataSource == null)
+			return;
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from comments", Long.class);
+		if(maxId == 0)
+			return;
+
+		long next = maxId + generator.getOptimizer().getIncrementSize();
+		jdbcTemplate.update("update " + generator.getDatabaseStructure().getPhysicalName().render()
+				+ " set " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " = ? where " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " < ?",
+				next, next);
+	}
+}
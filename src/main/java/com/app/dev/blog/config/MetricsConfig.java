@@ -0,0 +1,26 @@
+package com.app.dev.blog.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the {@code @Timed} controllers and services. Each timer is tagged with
+ * {@code class}, {@code method} and {@code exception}, the simple name of what
+ * the call threw or {@code none}, so error rates per exception type come from
+ * the same series as the latencies.
+ */
+@Configuration
+public class MetricsConfig {
+	
+	public static final String CONTROLLER_TIMER = "blog.controller";
+	
+	public static final String SERVICE_TIMER = "blog.service";
+	
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+}
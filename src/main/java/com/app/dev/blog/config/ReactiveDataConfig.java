@@ -0,0 +1,56 @@
+package com.app.dev.blog.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+
+/**
+ * Wiring for the reactive profile, built from {@code spring.r2dbc.*}. The pool
+ * is deliberately not exposed as a {@code ConnectionFactory} bean: Spring Boot
+ * backs off the JDBC DataSource when one exists, and JPA still serves the
+ * scheduled jobs and the search indexes.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveDataConfig implements DisposableBean {
+	
+	private ConnectionPool connectionPool;
+	
+	@Bean
+	public DatabaseClient databaseClient(R2dbcProperties properties) {
+		ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration
+				.builder(ConnectionFactoryBuilder.withUrl(properties.getUrl())
+												 .username(properties.getUsername())
+												 .password(properties.getPassword())
+												 .build())
+				.initialSize(properties.getPool().getInitialSize())
+				.maxSize(properties.getPool().getMaxSize())
+				.maxIdleTime(properties.getPool().getMaxIdleTime())
+				.build();
+		connectionPool = new ConnectionPool(configuration);
+		return DatabaseClient.create(connectionPool);
+	}
+	
+	// Tomcat is on the classpath for the servlet stack and would otherwise be picked first
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	@Override
+	public void destroy() {
+		if(connectionPool != null)
+			connectionPool.dispose();
+	}
+}
@@ -0,0 +1,44 @@
+package com.app.dev.blog.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * MySQL read replicas, bound from {@code blog.datasource.replicas.*}. The
+ * username, password and Hikari settings default to the primary's.
+ */
+@Data
+@ConfigurationProperties("blog.datasource.replicas")
+public class ReplicaProperties {
+	
+	private boolean enabled;
+	
+	private List<String> urls = new ArrayList<>();
+	
+	private String username;
+	
+	private String password;
+	
+	/** A replica further behind its source than this stops receiving reads. */
+	private Duration maxLag = Duration.ofSeconds(5);
+	
+	private Duration checkInterval = Duration.ofSeconds(2);
+	
+	/** A replica that does not answer its health check within this stops receiving reads. */
+	private Duration checkTimeout = Duration.ofSeconds(1);
+	
+	/** Off for plain MySQL servers that are not replicating, e.g. in tests. */
+	private boolean lagCheck = true;
+	
+	/**
+	 * How long a client reads from the primary after one of its writes. Keep
+	 * it at least {@code max-lag} so the client never reads a replica that
+	 * has not caught up with its own write yet.
+	 */
+	private Duration stickyWindow = Duration.ofSeconds(5);
+}
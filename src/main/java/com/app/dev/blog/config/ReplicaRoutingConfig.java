@@ -0,0 +1,100 @@
+package com.app.dev.blog.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.app.dev.blog.routing.PrimaryStickinessFilter;
+import com.app.dev.blog.routing.ReadWriteRoutingDataSource;
+import com.app.dev.blog.routing.ReplicaSelector;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the auto-configured DataSource when
+ * {@code blog.datasource.replicas.enabled=true}: the primary pool stays a bean
+ * bound to {@code spring.datasource.hikari.*}, each replica gets a pool with
+ * the same settings, and JPA, JdbcTemplate and the transaction manager see the
+ * routing DataSource in front of them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+	
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties, 
+			ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+		HikariDataSource dataSource = new HikariDataSource();
+		JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+		// docker compose and test containers publish connection details instead of properties
+		dataSource.setJdbcUrl(details != null ? details.getJdbcUrl() : properties.determineUrl());
+		dataSource.setUsername(details != null ? details.getUsername() : properties.determineUsername());
+		dataSource.setPassword(details != null ? details.getPassword() : properties.determinePassword());
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+	
+	@Bean
+	public ReplicaSelector replicaSelector(HikariDataSource primaryDataSource, ReplicaProperties properties, 
+			MeterRegistry meterRegistry) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		List<String> urls = properties.getUrls();
+		for(int index = 0; index < urls.size(); index++) {
+			HikariDataSource replica = new HikariDataSource();
+			primaryDataSource.copyStateTo(replica);
+			replica.setJdbcUrl(urls.get(index));
+			if(properties.getUsername() != null)
+				replica.setUsername(properties.getUsername());
+			if(properties.getPassword() != null)
+				replica.setPassword(properties.getPassword());
+			replica.setPoolName("replica-" + index);
+			replica.setReadOnly(true);
+			replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+			replicas.put(replica.getPoolName(), replica);
+		}
+		
+		ReplicaSelector replicaSelector = new ReplicaSelector(replicas, properties.getMaxLag(), properties.isLagCheck(), 
+															  properties.getCheckTimeout(), meterRegistry);
+		replicaSelector.check();
+		replicaSelector.start(properties.getCheckInterval());
+		return replicaSelector;
+	}
+	
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSelector replicaSelector, 
+			MeterRegistry meterRegistry) {
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaSelector, 
+																				meterRegistry));
+	}
+	
+	@Bean
+	@ConditionalOnWebApplication(type = Type.SERVLET)
+	public FilterRegistrationBean<PrimaryStickinessFilter> primaryStickinessFilter(ReplicaProperties properties) {
+		FilterRegistrationBean<PrimaryStickinessFilter> registration = 
+				new FilterRegistrationBean<>(new PrimaryStickinessFilter(properties.getStickyWindow()));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+		return registration;
+	}
+}
@@ -0,0 +1,31 @@
+package com.app.dev.blog.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.app.dev.blog.wal.FsyncPolicy;
+import com.app.dev.blog.wal.WriteAheadLog;
+
+/**
+ * Write-ahead log behind the comment write-behind queue. The queue opens and
+ * replays it on start; the context closes it after the queue has stopped.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.comments.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig {
+	
+	@Bean(destroyMethod = "close")
+	public WriteAheadLog commentWriteAheadLog(
+			@Value("${blog.comments.write-behind.wal.directory:data/comments-wal}") Path directory,
+			@Value("${blog.comments.write-behind.wal.segment-size:16MB}") DataSize segmentSize,
+			@Value("${blog.comments.write-behind.wal.fsync:GROUP}") FsyncPolicy fsyncPolicy,
+			@Value("${blog.comments.write-behind.wal.fsync-interval:PT0.01S}") Duration fsyncInterval) {
+		return new WriteAheadLog(directory, Math.toIntExact(segmentSize.toBytes()), fsyncPolicy, fsyncInterval);
+	}
+}
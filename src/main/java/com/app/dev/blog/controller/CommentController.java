@@ -2,7 +2,10 @@ package com.app.dev.blog.controller;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,29 +14,47 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.app.dev.blog.config.MetricsConfig;
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentCursorPageDto;
 import com.app.dev.blog.dtos.CommentDto;
 import com.app.dev.blog.dtos.CommentUpdateDto;
+import com.app.dev.blog.query.QueryBudget;
 import com.app.dev.blog.service.CommentService;
+import com.app.dev.blog.util.CommentConstant;
+import com.app.dev.blog.writebehind.CommentWriteBehindQueue;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/posts")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed(value = MetricsConfig.CONTROLLER_TIMER, histogram = true)
 public class CommentController {
 	
 	private CommentService commentService;
+	
+	private Optional<CommentWriteBehindQueue> writeBehindQueue;
 
-	public CommentController(CommentService commentService) {
+	public CommentController(CommentService commentService, Optional<CommentWriteBehindQueue> writeBehindQueue) {
 		super();
 		this.commentService = commentService;
+		this.writeBehindQueue = writeBehindQueue;
 	}
 	
 	@PostMapping("/{postId}/comments")
-	public ResponseEntity<CommentDto> createComment(@PathVariable("postId") long postId, 
-													@Valid @RequestBody CommentDto commentDto) {
+	@QueryBudget(5)
+	public ResponseEntity<?> createComment(@PathVariable("postId") long postId, 
+										   @Valid @RequestBody CommentDto commentDto) {
+		if(writeBehindQueue.isPresent())
+			return ResponseEntity.accepted().body(writeBehindQueue.get().enqueue(postId, commentDto));
+		
 		CommentDto savedComment = commentService.createComment(postId, commentDto);
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest()
 								   .path("/{postId}")
@@ -42,18 +63,40 @@ public class CommentController {
 		return ResponseEntity.created(location).body(savedComment);
 	}
 	
+	@PostMapping("/{postId}/comments/batch")
+	// ids and inserts both go in blocks of 50, so a full batch stays well under this
+	@QueryBudget(CommentConstant.MAX_BATCH_SIZE / 10)
+	public ResponseEntity<List<BulkItemResultDto>> createComments(@PathVariable("postId") long postId, 
+																  @RequestBody List<CommentDto> commentDtos) {
+		return ResponseEntity.ok(commentService.createComments(postId, commentDtos));
+	}
+	
 	@GetMapping("/{postId}/comments")
-	public List<CommentDto> getCommentsByPostId(@PathVariable("postId") long postId) {
+	@QueryBudget(2)
+	public List<CommentDto> getCommentsByPostId(@PathVariable("postId") long postId, WebRequest webRequest) {
+		if(webRequest.checkNotModified(commentService.getCommentsETag(postId)))
+			return null;
+		
 		return commentService.getCommentsByPostId(postId);
 	}
 	
+	@GetMapping(value = "/{postId}/comments", params = "limit")
+	@QueryBudget(2)
+	public CommentCursorPageDto getCommentsAfter(@PathVariable("postId") long postId,
+			@RequestParam(value = "limit") int limit,
+			@RequestParam(value = "after", required = false) String after) {
+		return commentService.getCommentsAfter(postId, after, limit);
+	}
+	
 	@GetMapping("/{postId}/comments/{commentId}")
+	@QueryBudget(2)
 	public ResponseEntity<CommentDto> getCommentById(@PathVariable("postId") long postId, @PathVariable("commentId") long commentId) {
 		CommentDto commentDto = commentService.getCommentById(postId, commentId);
 		return ResponseEntity.ok(commentDto);
 	}
 	
 	@PutMapping("/{postId}/comments/{commentId}")
+	@QueryBudget(3)
 	public ResponseEntity<CommentDto> updateComment(@PathVariable("postId") long postId, 
 													@PathVariable("commentId") long commentId, 
 													@Valid @RequestBody CommentUpdateDto commentDto) {
@@ -62,6 +105,7 @@ public class CommentController {
 	}
 	
 	@DeleteMapping("/{postId}/comments/{commentId}")
+	@QueryBudget(4)
 	public ResponseEntity<String> deleteComment(@PathVariable("postId") long postId, @PathVariable("commentId") long commentId) {
 		commentService.deleteCommetById(postId, commentId);
 		return ResponseEntity.ok("Comment deleted successfully");
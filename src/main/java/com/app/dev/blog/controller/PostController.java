@@ -1,38 +1,67 @@
 package com.app.dev.blog.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.app.dev.blog.config.MetricsConfig;
+import com.app.dev.blog.dtos.BulkImportSummaryDto;
+import com.app.dev.blog.dtos.PostCursorPageDto;
 import com.app.dev.blog.dtos.PostDto;
 import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.dtos.PostSliceDto;
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.query.QueryBudget;
+import com.app.dev.blog.service.PostBulkService;
 import com.app.dev.blog.service.PostService;
+import com.app.dev.blog.util.ETags;
 import com.app.dev.blog.util.PostConstant;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/posts")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed(value = MetricsConfig.CONTROLLER_TIMER, histogram = true)
 public class PostController {
 
 	private PostService postService;
 	
-	public PostController(PostService postService) {
+	private PostBulkService postBulkService;
+	
+	public PostController(PostService postService, PostBulkService postBulkService) {
 		super();
 		this.postService = postService;
+		this.postBulkService = postBulkService;
 	}
 
 	@PostMapping
+	@QueryBudget(2)
 	public ResponseEntity<PostDto> createPost(@Valid @RequestBody PostDto postDto) {
 		PostDto createdPost = postService.createPost(postDto);
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest()
@@ -43,26 +72,115 @@ public class PostController {
 		return ResponseEntity.created(location).body(createdPost);
 	}
 	
+	@PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public BulkImportSummaryDto importPosts(InputStream inputStream) throws IOException {
+		return postBulkService.importPosts(inputStream);
+	}
+	
+	@GetMapping("/export")
+	public void exportPosts(
+			@RequestParam(value = "withComments", defaultValue = "false", required = false) boolean withComments,
+			HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		try(OutputStream outputStream = response.getOutputStream()) {
+			postBulkService.exportPosts(withComments, outputStream);
+		}
+	}
+	
+	@GetMapping("/search")
+	@QueryBudget(2)
+	public PostPageDto searchPosts(
+			@RequestParam(value = "q") String query,
+			@RequestParam(value = "pageNo", defaultValue = PostConstant.DEFAULT_PAGE_NO, required = false) int pageNo,
+			@RequestParam(value = "pageSize", defaultValue = PostConstant.DEFAULT_PAGE_SIZE, required = false) int pageSize) {
+		return postService.searchPosts(query, pageNo, pageSize);
+	}
+	
+	@GetMapping("/suggest")
+	@QueryBudget(1)
+	public List<PostSuggestionDto> suggestTitles(
+			@RequestParam(value = "prefix") String prefix,
+			@RequestParam(value = "limit", defaultValue = PostConstant.DEFAULT_SUGGEST_LIMIT, required = false) int limit) {
+		return postService.suggestTitles(prefix, limit);
+	}
+	
 	@GetMapping
+	@QueryBudget(3)
 	public PostPageDto getAllPosts(
+			@RequestParam(value = "pageNo", defaultValue = PostConstant.DEFAULT_PAGE_NO, required = false) int pageNo,
+			@RequestParam(value = "pageSize", defaultValue = PostConstant.DEFAULT_PAGE_SIZE, required = false) int pageSize, 
+			@RequestParam(value = "sortBy", defaultValue = PostConstant.DEFAULT_SORT_BY, required = false) String sortBy,
+			@RequestParam(value = "sortDir", defaultValue = PostConstant.DEFAULT_SORT_DIR, required = false) String sortDir,
+			WebRequest webRequest) {
+		// the page usually comes from the cache, so tagging it costs no query
+		PostPageDto postPageDto = postService.getAllPosts(pageNo, pageSize, sortBy, sortDir);
+		if(webRequest.checkNotModified(ETags.of("posts", postPageDto, sortBy, sortDir.toLowerCase())))
+			return null;
+		
+		return postPageDto;
+	}
+	
+	@GetMapping(params = {"withTotal=false", "!after"})
+	@QueryBudget(2)
+	public PostSliceDto getPostSlice(
 			@RequestParam(value = "pageNo", defaultValue = PostConstant.DEFAULT_PAGE_NO, required = false) int pageNo,
 			@RequestParam(value = "pageSize", defaultValue = PostConstant.DEFAULT_PAGE_SIZE, required = false) int pageSize, 
 			@RequestParam(value = "sortBy", defaultValue = PostConstant.DEFAULT_SORT_BY, required = false) String sortBy,
 			@RequestParam(value = "sortDir", defaultValue = PostConstant.DEFAULT_SORT_DIR, required = false) String sortDir) {
-		return postService.getAllPosts(pageNo, pageSize, sortBy, sortDir);
+		return postService.getPostSlice(pageNo, pageSize, sortBy, sortDir);
+	}
+	
+	@GetMapping(params = "after")
+	@QueryBudget(2)
+	public PostCursorPageDto getPostsAfter(
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "pageSize", defaultValue = PostConstant.DEFAULT_PAGE_SIZE, required = false) int pageSize, 
+			@RequestParam(value = "sortBy", defaultValue = PostConstant.DEFAULT_SORT_BY, required = false) String sortBy,
+			@RequestParam(value = "sortDir", defaultValue = PostConstant.DEFAULT_SORT_DIR, required = false) String sortDir) {
+		return postService.getPostsAfter(after, pageSize, sortBy, sortDir);
 	}
 	
 	@GetMapping("/{id}")
-	public ResponseEntity<PostDto> getPostById(@PathVariable("id")long id) {
-		return ResponseEntity.ok(postService.getPostById(id));
+	@QueryBudget(2)
+	public ResponseEntity<PostDto> getPostById(@PathVariable("id")long id, @RequestHeader HttpHeaders headers) {
+		// a revalidation is settled from the version columns, so a 304 never reads the post itself
+		if(!headers.getIfNoneMatch().isEmpty()) {
+			String current = postService.getPostETag(id);
+			if(ETags.matchesAny(headers.getIfNoneMatch(), current))
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+		}
+		
+		PostDto postDto = postService.getPostById(id);
+		return ResponseEntity.ok().eTag(ETags.of("post", postDto)).body(postDto);
 	}
 	
 	@PutMapping("/{id}")
-	public ResponseEntity<PostDto> updatePost(@PathVariable("id") long id, @Valid @RequestBody PostDto postDto) {
-		return ResponseEntity.ok(postService.updatePost(id, postDto));
+	@QueryBudget(4)
+	public ResponseEntity<PostDto> updatePost(@PathVariable("id") long id, @Valid @RequestBody PostDto postDto,
+											  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		boolean conditional = ifMatch != null && !ifMatch.trim().equals("*");
+		if(conditional) {
+			// the If-Match version becomes the expected version, checked inside the update transaction
+			Long expectedVersion = ETags.versionOf("post", id, ifMatch);
+			if(expectedVersion == null || (postDto.getVersion() != null && !postDto.getVersion().equals(expectedVersion)))
+				return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+			postDto.setVersion(expectedVersion);
+		}
+		
+		PostDto updatedPost;
+		try {
+			updatedPost = postService.updatePost(id, postDto);
+		} catch (ObjectOptimisticLockingFailureException exception) {
+			if(!conditional)
+				throw exception;
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+		}
+		return ResponseEntity.ok().eTag(ETags.of("post", updatedPost)).body(updatedPost);
 	}
 	
 	@DeleteMapping("/{id}")
+	@QueryBudget(4)
 	public ResponseEntity<String> deletePostById(@PathVariable("id") long id) {
 		postService.deletePostById(id);
 		return ResponseEntity.ok("PostEntity deleted successfully");
@@ -0,0 +1,37 @@
+package com.app.dev.blog.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.service.ReactiveCommentService;
+
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/posts")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveCommentController {
+	
+	private ReactiveCommentService reactiveCommentService;
+
+	public ReactiveCommentController(ReactiveCommentService reactiveCommentService) {
+		super();
+		this.reactiveCommentService = reactiveCommentService;
+	}
+	
+	/**
+	 * Comments are written as they are read, so a slow client holds back its own
+	 * stream instead of a thread. Ask for {@code application/x-ndjson} to receive
+	 * one comment per line.
+	 */
+	@GetMapping(value = "/{postId}/comments", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	public Flux<CommentDto> getCommentsByPostId(@PathVariable("postId") long postId) {
+		return reactiveCommentService.getCommentsByPostId(postId);
+	}
+}
@@ -0,0 +1,43 @@
+package com.app.dev.blog.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.service.ReactivePostService;
+import com.app.dev.blog.util.PostConstant;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/posts")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactivePostController {
+	
+	private ReactivePostService reactivePostService;
+
+	public ReactivePostController(ReactivePostService reactivePostService) {
+		super();
+		this.reactivePostService = reactivePostService;
+	}
+	
+	@GetMapping
+	public Mono<PostPageDto> getAllPosts(
+			@RequestParam(value = "pageNo", defaultValue = PostConstant.DEFAULT_PAGE_NO, required = false) int pageNo,
+			@RequestParam(value = "pageSize", defaultValue = PostConstant.DEFAULT_PAGE_SIZE, required = false) int pageSize, 
+			@RequestParam(value = "sortBy", defaultValue = PostConstant.DEFAULT_SORT_BY, required = false) String sortBy,
+			@RequestParam(value = "sortDir", defaultValue = PostConstant.DEFAULT_SORT_DIR, required = false) String sortDir) {
+		return reactivePostService.getAllPosts(pageNo, pageSize, sortBy, sortDir);
+	}
+	
+	@GetMapping("/{id}")
+	public Mono<PostDto> getPostById(@PathVariable("id") long id) {
+		return reactivePostService.getPostById(id);
+	}
+}
@@ -0,0 +1,22 @@
+package com.app.dev.blog.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportSummaryDto {
+	
+	private long total;
+	
+	private long created;
+	
+	private long failed;
+	
+	private List<BulkItemResultDto> failures = new ArrayList<>();
+}
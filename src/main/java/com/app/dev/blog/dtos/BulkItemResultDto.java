@@ -0,0 +1,34 @@
+package com.app.dev.blog.dtos;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BulkItemResultDto {
+	
+	public enum Status { CREATED, FAILED }
+	
+	private int index;
+	
+	private Status status;
+	
+	private Long id;
+	
+	private Map<String, String> errors;
+	
+	public static BulkItemResultDto created(int index, Long id) {
+		return new BulkItemResultDto(index, Status.CREATED, id, null);
+	}
+	
+	public static BulkItemResultDto failed(int index, Map<String, String> errors) {
+		return new BulkItemResultDto(index, Status.FAILED, null, errors);
+	}
+}
@@ -0,0 +1,22 @@
+package com.app.dev.blog.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentCursorPageDto {
+	
+	private List<CommentDto> content = new ArrayList<>();
+	
+	private int pageSize;
+	
+	private String nextCursor;
+	
+	private boolean last;
+}
@@ -26,4 +26,6 @@ public class CommentDto {
 	@NotEmpty
 	@Size(min = 10, message = "Comment body must have 10 characters")
 	private String body;
+	
+	private Long version;
 }
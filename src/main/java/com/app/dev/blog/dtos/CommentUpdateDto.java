@@ -23,4 +23,6 @@ public class CommentUpdateDto {
 
 	@Size(min = 10, message = "Comment body must have 10 characters")
 	private String body;
+	
+	private Long version;
 }
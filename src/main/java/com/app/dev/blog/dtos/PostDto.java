@@ -31,4 +31,8 @@ public class PostDto {
 	
 	@NotEmpty
 	private String content;
+	
+	private Long version;
+	
+	private Long commentCount;
 }
@@ -0,0 +1,28 @@
+package com.app.dev.blog.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostExportDto {
+	
+	private Long id;
+	
+	private String title;
+	
+	private String description;
+	
+	private String content;
+	
+	private Long version;
+	
+	private Long commentCount;
+	
+	private List<CommentDto> comments = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package com.app.dev.blog.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSuggestionDto {
+	
+	private Long id;
+	
+	private String title;
+}
@@ -0,0 +1,15 @@
+package com.app.dev.blog.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueuedCommentDto {
+	
+	private String provisionalId;
+	
+	private long postId;
+}
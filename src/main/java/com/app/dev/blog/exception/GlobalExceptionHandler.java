@@ -4,10 +4,13 @@ import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -18,6 +21,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import com.app.dev.blog.dtos.ErrorDetails;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 	
 	@ExceptionHandler(ResourceNotFoundException.class)
@@ -38,6 +42,27 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
 	}
 	
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<ErrorDetails> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException exception, 
+																			   WebRequest webRequest) {
+		ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), 
+				 exception.getMessage(), 
+				 HttpStatus.CONFLICT.name(), 
+				 webRequest.getDescription(false));
+		return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+	}
+	
+	@ExceptionHandler({WriteQueueFullException.class, WriteQueueClosedException.class})
+	public ResponseEntity<ErrorDetails> handleWriteQueueUnavailable(RuntimeException exception, WebRequest webRequest) {
+		ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), 
+				 exception.getMessage(), 
+				 HttpStatus.SERVICE_UNAVAILABLE.name(), 
+				 webRequest.getDescription(false));
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+							 .header(HttpHeaders.RETRY_AFTER, "1")
+							 .body(errorDetails);
+	}
+	
 	@Override
 	protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
 			HttpHeaders headers, HttpStatusCode status, WebRequest request) {
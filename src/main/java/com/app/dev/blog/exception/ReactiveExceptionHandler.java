@@ -0,0 +1,39 @@
+package com.app.dev.blog.exception;
+
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.app.dev.blog.dtos.ErrorDetails;
+
+/**
+ * Counterpart of {@link GlobalExceptionHandler} for the reactive profile.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveExceptionHandler {
+	
+	@ExceptionHandler(ResourceNotFoundException.class)
+	public ResponseEntity<ErrorDetails> handleResourceNotFoundException(ResourceNotFoundException exception, ServerHttpRequest request) {
+		return this.errorResponse(exception.getMessage(), HttpStatus.NOT_FOUND, request);
+	}
+	
+	@ExceptionHandler(BlogApiException.class)
+	public ResponseEntity<ErrorDetails> handleBlogApiException(BlogApiException exception, ServerHttpRequest request) {
+		return this.errorResponse(exception.getMessage(), HttpStatus.BAD_REQUEST, request);
+	}
+	
+	private ResponseEntity<ErrorDetails> errorResponse(String message, HttpStatus status, ServerHttpRequest request) {
+		ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), 
+													 message, 
+													 status.name(), 
+													 "uri=" + request.getPath().value());
+		return new ResponseEntity<>(errorDetails, status);
+	}
+}
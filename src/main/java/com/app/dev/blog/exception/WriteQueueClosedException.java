@@ -0,0 +1,13 @@
+package com.app.dev.blog.exception;
+
+public class WriteQueueClosedException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = -3418870462350928113L;
+
+	public WriteQueueClosedException() {
+		super("Write queue is not accepting comments, retry later");
+	}
+}
@@ -0,0 +1,20 @@
+package com.app.dev.blog.exception;
+
+public class WriteQueueFullException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 6254031972480817193L;
+	
+	private final int capacity;
+
+	public WriteQueueFullException(int capacity) {
+		super(String.format("Write queue is full (%d pending), retry later", capacity));
+		this.capacity = capacity;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+}
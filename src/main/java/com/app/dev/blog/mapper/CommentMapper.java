@@ -18,11 +18,13 @@ public interface CommentMapper {
 	public CommentDto convertCommentEntityToDto(CommentEntity commentEntity);
 	
 	@Mapping(target = "postEntity", ignore = true)
+	@Mapping(target = "version", ignore = true)
 	public CommentEntity convertCommentDtoToEntity(CommentDto commentDto);
 	
 	public List<CommentDto> convertCommentEntityListToDtoList(List<CommentEntity> commentEntities);
 	
 	@Mapping(target = "postEntity", ignore = true)
+	@Mapping(target = "version", ignore = true)
 	@BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 	public void updateCommentEntity(CommentUpdateDto commentDto, @MappingTarget CommentEntity commentEntity);
 }
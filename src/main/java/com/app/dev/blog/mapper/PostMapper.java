@@ -8,7 +8,9 @@ import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostExportDto;
 import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostView;
 import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
@@ -17,11 +19,22 @@ public interface PostMapper {
 	public PostDto convertPostEntityToDto(PostEntity postEntity);
 	
 	@Mapping(target = "comments", ignore = true)
+	@Mapping(target = "version", ignore = true)
+	@Mapping(target = "commentCount", ignore = true)
 	public PostEntity convertPostDtoToEntity(PostDto postDto);
 	
 	public List<PostDto> convertPosEntitytListToPostDtoList(List<PostEntity> posts);
 	
+	public PostDto convertPostViewToDto(PostView postView);
+	
+	public List<PostDto> convertPostViewListToPostDtoList(List<PostView> posts);
+	
+	@Mapping(target = "comments", ignore = true)
+	public PostExportDto convertPostViewToExportDto(PostView postView);
+	
 	@Mapping(target = "comments", ignore = true)
+	@Mapping(target = "version", ignore = true)
+	@Mapping(target = "commentCount", ignore = true)
 	@BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 	public void updatePostEntity(PostDto postDto, @MappingTarget PostEntity postEntity);
 }
@@ -3,6 +3,8 @@ package com.app.dev.blog.model;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -12,6 +14,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -41,7 +44,17 @@ public class PostEntity {
 	@Column(name = "content", nullable = false)
 	private String content;
 	
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "postEntity", orphanRemoval = true)
+	@Version
+	@ColumnDefault("0")
+	@Column(name = "version", nullable = false)
+	private Long version;
+	
+	// only ever moved by PostRepository.adjustCommentCount, an entity update must not write back a stale count
+	@ColumnDefault("0")
+	@Column(name = "comment_count", nullable = false, updatable = false)
+	private long commentCount;
+	
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "postEntity", orphanRemoval = true)
 	@Builder.Default
 	private Set<CommentEntity> comments = new HashSet<>();
 }
@@ -0,0 +1,18 @@
+package com.app.dev.blog.projection;
+
+/**
+ * One row of a post left-joined to its comments. The comment columns are
+ * {@code null} for posts without comments.
+ */
+public interface PostCommentView extends PostView {
+	
+	Long getCommentId();
+	
+	String getCommentName();
+	
+	String getCommentEmail();
+	
+	String getCommentBody();
+	
+	Long getCommentVersion();
+}
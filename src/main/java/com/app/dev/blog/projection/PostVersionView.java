@@ -0,0 +1,10 @@
+package com.app.dev.blog.projection;
+
+/**
+ * Everything a post's entity tag is made of. The comment count moves without
+ * the version, so it is read alongside it.
+ */
+public interface PostVersionView extends VersionView {
+	
+	Long getCommentCount();
+}
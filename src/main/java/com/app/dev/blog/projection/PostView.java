@@ -0,0 +1,20 @@
+package com.app.dev.blog.projection;
+
+/**
+ * Closed projection over the columns exposed by {@code PostDto}, so post reads
+ * never touch the comments association.
+ */
+public interface PostView {
+	
+	Long getId();
+	
+	String getTitle();
+	
+	String getDescription();
+	
+	String getContent();
+	
+	Long getVersion();
+	
+	Long getCommentCount();
+}
@@ -0,0 +1,11 @@
+package com.app.dev.blog.projection;
+
+/**
+ * Just enough of a post to offer it as a title suggestion.
+ */
+public interface TitleView {
+	
+	Long getId();
+	
+	String getTitle();
+}
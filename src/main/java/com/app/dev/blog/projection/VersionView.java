@@ -0,0 +1,12 @@
+package com.app.dev.blog.projection;
+
+/**
+ * Identity and optimistic lock version of a row, enough to tell whether a
+ * representation is still fresh without reading any text columns.
+ */
+public interface VersionView {
+	
+	Long getId();
+	
+	Long getVersion();
+}
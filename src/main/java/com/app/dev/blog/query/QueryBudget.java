@@ -0,0 +1,21 @@
+package com.app.dev.blog.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of JDBC statements a handler method may execute for one
+ * request, checked by {@link QueryBudgetAdvice} before the body is written.
+ * Budgets are fixed counts, not per row, so a lazy association touched in a
+ * loop blows through them as soon as a page has more than a handful of rows.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+	
+	int value();
+}
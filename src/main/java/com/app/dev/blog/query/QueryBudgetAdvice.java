@@ -0,0 +1,76 @@
+package com.app.dev.blog.query;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Reports the statements behind a response as {@code X-Query-Count} and
+ * {@code X-Query-Time} (JDBC milliseconds) headers. This runs just before the
+ * body is serialized, the last point where headers can still be added, and
+ * after the services have returned their DTOs.
+ *
+ * <p>When the handler declares a {@link QueryBudget} and went over it, the
+ * overrun is logged; with {@code blog.query-budget.enforce=true}, which the
+ * integration tests set, the request fails instead so the regression cannot
+ * be merged unnoticed.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+	
+	public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+	
+	public static final String QUERY_TIME_HEADER = "X-Query-Time";
+	
+	private static final Logger log = LoggerFactory.getLogger(QueryBudgetAdvice.class);
+	
+	private final boolean enforce;
+	
+	public QueryBudgetAdvice(@Value("${blog.query-budget.enforce:false}") boolean enforce) {
+		super();
+		this.enforce = enforce;
+	}
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		QueryStats.current().ifPresent(stats -> {
+			response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(stats.getStatements()));
+			response.getHeaders().set(QUERY_TIME_HEADER, String.format(Locale.ROOT, "%.2f", stats.getJdbcMillis()));
+			
+			QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+			if(budget != null && stats.getStatements() > budget.value())
+				overBudget(returnType, budget, stats);
+		});
+		return body;
+	}
+	
+	private void overBudget(MethodParameter returnType, QueryBudget budget, QueryStats stats) {
+		String message = String.format("%s.%s executed %d statements, over its query budget of %d", 
+									   returnType.getContainingClass().getSimpleName(), 
+									   returnType.getExecutable().getName(), 
+									   stats.getStatements(), budget.value());
+		if(enforce)
+			throw new IllegalStateException(message);
+		
+		log.warn(message);
+	}
+}
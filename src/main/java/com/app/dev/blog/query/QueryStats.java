@@ -0,0 +1,71 @@
+package com.app.dev.blog.query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC statements executed on behalf of the current HTTP request. The
+ * {@link QueryStatsFilter} opens a scope per request and the Hibernate hooks
+ * record into it from the same thread, so work done outside a request
+ * (schedulers, startup) is simply not counted.
+ */
+public final class QueryStats {
+	
+	private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+	
+	private int statements;
+	
+	private long jdbcNanos;
+	
+	private final Map<String, Integer> preparedBySql = new HashMap<>();
+	
+	private QueryStats() {
+	}
+	
+	public static QueryStats start() {
+		QueryStats stats = new QueryStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+	
+	public static Optional<QueryStats> current() {
+		return Optional.ofNullable(CURRENT.get());
+	}
+	
+	public static void clear() {
+		CURRENT.remove();
+	}
+	
+	void prepared(String sql) {
+		preparedBySql.merge(sql, 1, Integer::sum);
+	}
+	
+	void executed(long nanos) {
+		statements++;
+		jdbcNanos += nanos;
+	}
+	
+	public int getStatements() {
+		return statements;
+	}
+	
+	public long getJdbcNanos() {
+		return jdbcNanos;
+	}
+	
+	public double getJdbcMillis() {
+		return jdbcNanos / 1_000_000.0;
+	}
+	
+	/**
+	 * The statement prepared most often in this request and how many times,
+	 * the usual fingerprint of an N+1: one parent query followed by the same
+	 * child select once per row.
+	 */
+	public Optional<Map.Entry<String, Integer>> mostRepeated() {
+		return preparedBySql.entrySet()
+							.stream()
+							.max(Map.Entry.comparingByValue());
+	}
+}
@@ -0,0 +1,63 @@
+package com.app.dev.blog.query;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link QueryStats} scope around each request and logs what it ran
+ * once the response is complete, including streamed responses that never
+ * pass through {@link QueryBudgetAdvice}. A statement prepared at least
+ * {@code blog.query-stats.repeat-threshold} times is logged as a likely N+1.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class QueryStatsFilter extends OncePerRequestFilter {
+	
+	private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+	
+	private final int repeatThreshold;
+	
+	public QueryStatsFilter(@Value("${blog.query-stats.repeat-threshold:5}") int repeatThreshold) {
+		super();
+		this.repeatThreshold = repeatThreshold;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		QueryStats stats = QueryStats.start();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			QueryStats.clear();
+			log(request, response, stats);
+		}
+	}
+	
+	private void log(HttpServletRequest request, HttpServletResponse response, QueryStats stats) {
+		if(log.isDebugEnabled())
+			log.debug("{} {} -> {} statements={} jdbcMs={}", request.getMethod(), request.getRequestURI(), 
+					  response.getStatus(), stats.getStatements(), String.format(Locale.ROOT, "%.2f", stats.getJdbcMillis()));
+		
+		stats.mostRepeated()
+			 .filter(entry -> entry.getValue() >= repeatThreshold)
+			 .ifPresent(entry -> log.warn("Possible N+1 on {} {}: statement prepared {} times: {}", request.getMethod(), 
+					 					  request.getRequestURI(), entry.getValue(), entry.getKey()));
+	}
+}
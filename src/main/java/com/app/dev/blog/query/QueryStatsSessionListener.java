@@ -0,0 +1,43 @@
+package com.app.dev.blog.query;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Counts and times JDBC executions, registered through
+ * {@code hibernate.session.events.auto} so Hibernate creates one per session.
+ * A flushed JDBC batch counts as a single statement, which is what the
+ * database sees.
+ */
+public class QueryStatsSessionListener extends BaseSessionEventListener {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private long statementStart;
+	
+	private long batchStart;
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		statementStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		record(statementStart);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		batchStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		record(batchStart);
+	}
+	
+	private void record(long start) {
+		long elapsed = System.nanoTime() - start;
+		QueryStats.current().ifPresent(stats -> stats.executed(elapsed));
+	}
+}
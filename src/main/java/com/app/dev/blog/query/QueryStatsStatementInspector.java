@@ -0,0 +1,29 @@
+package com.app.dev.blog.query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sees every SQL string Hibernate prepares, registered through
+ * {@code hibernate.session_factory.statement_inspector}. Selects are recorded
+ * per request so repeated ones can be reported; inserts and updates are left
+ * out because a JDBC batch prepares the same statement once per row. The text
+ * is never altered.
+ */
+public class QueryStatsStatementInspector implements StatementInspector {
+	
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String inspect(String sql) {
+		if(isSelect(sql))
+			QueryStats.current().ifPresent(stats -> stats.prepared(sql));
+		return sql;
+	}
+	
+	private static boolean isSelect(String sql) {
+		// use_sql_comments prefixes statements with /* ... */
+		int start = sql.startsWith("/*") ? sql.indexOf("*/") + 2 : 0;
+		String statement = sql.substring(start).stripLeading();
+		return statement.regionMatches(true, 0, "select", 0, "select".length());
+	}
+}
@@ -1,15 +1,23 @@
 package com.app.dev.blog.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 
 import com.app.dev.blog.model.CommentEntity;
+import com.app.dev.blog.projection.VersionView;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
 	
-	public boolean existsByPostEntity_Id(long id);
-	
 	public List<CommentEntity> findByPostEntity_Id(@Param("postId") long postId);
+	
+	public Slice<CommentEntity> findByPostEntity_IdAndIdGreaterThan(long postId, long id, Pageable pageable);
+	
+	public Optional<CommentEntity> findByIdAndPostEntity_Id(long id, long postId);
+	
+	public List<VersionView> findVersionsByPostEntity_IdOrderByIdAsc(long postId);
 }
@@ -0,0 +1,21 @@
+package com.app.dev.blog.repository;
+
+import java.util.stream.Stream;
+
+import com.app.dev.blog.projection.PostCommentView;
+import com.app.dev.blog.projection.PostView;
+import com.app.dev.blog.projection.TitleView;
+
+/**
+ * Queries that read every post once, for the NDJSON export and the in-memory
+ * indexes. The rows are streamed rather than loaded into a list, so the
+ * streams must be closed and consumed inside a transaction.
+ */
+public interface PostExportRepository {
+	
+	public Stream<PostView> streamAllForExport();
+	
+	public Stream<PostCommentView> streamAllWithCommentsForExport();
+	
+	public Stream<TitleView> streamAllTitles();
+}
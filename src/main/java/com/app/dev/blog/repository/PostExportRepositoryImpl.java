@@ -0,0 +1,109 @@
+package com.app.dev.blog.repository;
+
+import java.sql.DatabaseMetaData;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import com.app.dev.blog.projection.PostCommentView;
+import com.app.dev.blog.projection.PostView;
+import com.app.dev.blog.projection.TitleView;
+import com.app.dev.blog.util.PostConstant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+
+/**
+ * Connector/J reads a whole result set into memory unless the statement asks
+ * it to stream rows, with a fetch size of {@link Integer#MIN_VALUE}. Other
+ * databases reject that value and get {@link PostConstant#EXPORT_FETCH_SIZE}
+ * instead. The fetch size is set on these queries only, so every other
+ * statement keeps the driver's defaults.
+ * <p>
+ * A streaming MySQL connection cannot run another statement until the rows
+ * are read or the stream is closed.
+ */
+public class PostExportRepositoryImpl implements PostExportRepository {
+	
+	private static final String POSTS = "select p.id as id, p.title as title, p.description as description, "
+			+ "p.content as content, p.version as version, p.commentCount as commentCount from PostEntity p order by p.id";
+	
+	private static final String POSTS_WITH_COMMENTS = "select p.id as id, p.title as title, p.description as description, "
+			+ "p.content as content, p.version as version, p.commentCount as commentCount, c.id as commentId, "
+			+ "c.name as commentName, c.email as commentEmail, c.body as commentBody, c.version as commentVersion "
+			+ "from PostEntity p left join p.comments c order by p.id, c.id";
+	
+	private static final String TITLES = "select p.id as id, p.title as title from PostEntity p";
+	
+	private final EntityManager entityManager;
+	
+	private final DataSource dataSource;
+	
+	private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+	
+	private volatile Integer fetchSize;
+
+	public PostExportRepositoryImpl(EntityManager entityManager, DataSource dataSource) {
+		super();
+		this.entityManager = entityManager;
+		this.dataSource = dataSource;
+	}
+
+	@Override
+	public Stream<PostView> streamAllForExport() {
+		return this.stream(POSTS, PostView.class);
+	}
+
+	@Override
+	public Stream<PostCommentView> streamAllWithCommentsForExport() {
+		return this.stream(POSTS_WITH_COMMENTS, PostCommentView.class);
+	}
+
+	@Override
+	public Stream<TitleView> streamAllTitles() {
+		return this.stream(TITLES, TitleView.class);
+	}
+	
+	private <T> Stream<T> stream(String query, Class<T> projection) {
+		return entityManager.createQuery(query, Tuple.class)
+							.setHint(HibernateHints.HINT_FETCH_SIZE, this.fetchSize())
+							.getResultStream()
+							.map(tuple -> projectionFactory.createProjection(projection, toMap(tuple)));
+	}
+	
+	private static Map<String, Object> toMap(Tuple tuple) {
+		// the comment columns of a post without comments are null
+		Map<String, Object> values = new HashMap<>();
+		for(TupleElement<?> element : tuple.getElements())
+			values.put(element.getAlias(), tuple.get(element));
+		return values;
+	}
+	
+	private int fetchSize() {
+		Integer current = fetchSize;
+		if(current == null) {
+			current = this.isMySql() ? Integer.MIN_VALUE : PostConstant.EXPORT_FETCH_SIZE;
+			fetchSize = current;
+		}
+		return current;
+	}
+	
+	private boolean isMySql() {
+		try {
+			String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+			return DatabaseDriver.fromProductName(productName) == DatabaseDriver.MYSQL;
+		} catch (MetaDataAccessException exception) {
+			return false;
+		}
+	}
+}
@@ -1,9 +1,49 @@
 package com.app.dev.blog.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostVersionView;
+import com.app.dev.blog.projection.PostView;
 
-public interface PostRepository extends JpaRepository<PostEntity, Long> {
-
+public interface PostRepository extends JpaRepository<PostEntity, Long>, JpaSpecificationExecutor<PostEntity>, 
+		PostExportRepository {
+	
+	public Optional<PostView> findProjectedById(long id);
+	
+	public List<PostView> findProjectedByIdIn(Collection<Long> ids);
+	
+	public Slice<PostView> findAllProjectedBy(Pageable pageable);
+	
+	public Optional<PostVersionView> findVersionById(long id);
+	
+	@Query("select p.title from PostEntity p where p.title in :titles")
+	public List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+	
+	/**
+	 * Moves the comment counter in place. The version is left alone, so comment
+	 * traffic never fails a concurrent post update on its optimistic lock.
+	 */
+	@Modifying
+	@Query("update PostEntity p set p.commentCount = p.commentCount + :delta where p.id = :id")
+	public int adjustCommentCount(@Param("id") long id, @Param("delta") long delta);
+	
+	@Query("select coalesce(max(p.id), 0) from PostEntity p")
+	public long findMaxId();
+	
+	@Modifying
+	@Query(value = "update posts p set p.comment_count = (select count(*) from comments c where c.post_id = p.id) "
+			+ "where p.id between :fromId and :toId "
+			+ "and p.comment_count <> (select count(*) from comments c where c.post_id = p.id)", nativeQuery = true)
+	public int reconcileCommentCounts(@Param("fromId") long fromId, @Param("toId") long toId);
 }
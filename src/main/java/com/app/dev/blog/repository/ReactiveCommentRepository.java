@@ -0,0 +1,44 @@
+package com.app.dev.blog.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.app.dev.blog.model.CommentEntity;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the {@code comments} table for the reactive profile.
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveCommentRepository {
+	
+	private DatabaseClient databaseClient;
+
+	public ReactiveCommentRepository(DatabaseClient databaseClient) {
+		super();
+		this.databaseClient = databaseClient;
+	}
+	
+	public Flux<CommentEntity> findByPostId(long postId) {
+		// walks idx_comments_post_id_id, so rows arrive in id order without a sort
+		return databaseClient.sql("select id, name, email, body, version from comments where post_id = :postId order by id")
+							 .bind("postId", postId)
+							 .map(ReactiveCommentRepository::toCommentEntity)
+							 .all();
+	}
+	
+	private static CommentEntity toCommentEntity(Readable row) {
+		return CommentEntity.builder()
+							.id(row.get("id", Long.class))
+							.name(row.get("name", String.class))
+							.email(row.get("email", String.class))
+							.body(row.get("body", String.class))
+							.version(row.get("version", Long.class))
+							.build();
+	}
+}
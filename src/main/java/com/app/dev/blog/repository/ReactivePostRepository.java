@@ -0,0 +1,85 @@
+package com.app.dev.blog.repository;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.app.dev.blog.exception.BlogApiException;
+import com.app.dev.blog.model.PostEntity;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the {@code posts} table for the reactive profile. Rows
+ * are read into detached {@link PostEntity} instances so the existing mappers
+ * apply unchanged.
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactivePostRepository {
+	
+	private static final String SELECT_POSTS = "select id, title, description, content, version, comment_count from posts";
+	
+	// sort properties are spliced into the SQL, so only known ones are accepted
+	private static final Map<String, String> SORT_COLUMNS = Map.of(
+			"id", "id",
+			"title", "title",
+			"description", "description",
+			"content", "content",
+			"version", "version",
+			"commentCount", "comment_count");
+	
+	private DatabaseClient databaseClient;
+
+	public ReactivePostRepository(DatabaseClient databaseClient) {
+		super();
+		this.databaseClient = databaseClient;
+	}
+	
+	public Flux<PostEntity> findAll(Sort sort, int limit, long offset) {
+		return databaseClient.sql(SELECT_POSTS + " order by " + this.orderBy(sort) + " limit :limit offset :offset")
+							 .bind("limit", limit)
+							 .bind("offset", offset)
+							 .map(ReactivePostRepository::toPostEntity)
+							 .all();
+	}
+	
+	public Mono<PostEntity> findById(long id) {
+		return databaseClient.sql(SELECT_POSTS + " where id = :id")
+							 .bind("id", id)
+							 .map(ReactivePostRepository::toPostEntity)
+							 .one();
+	}
+	
+	private String orderBy(Sort sort) {
+		return sort.stream()
+				   .map(order -> this.column(order.getProperty()) + " " + order.getDirection().name())
+				   .collect(Collectors.joining(", "));
+	}
+	
+	private String column(String property) {
+		String column = SORT_COLUMNS.get(property);
+		if(column == null)
+			throw new BlogApiException("Posts can not be sorted by " + property);
+		
+		return column;
+	}
+	
+	private static PostEntity toPostEntity(Readable row) {
+		return PostEntity.builder()
+						 .id(row.get("id", Long.class))
+						 .title(row.get("title", String.class))
+						 .description(row.get("description", String.class))
+						 .content(row.get("content", String.class))
+						 .version(row.get("version", Long.class))
+						 .commentCount(row.get("comment_count", Long.class))
+						 .build();
+	}
+}
@@ -0,0 +1,77 @@
+package com.app.dev.blog.routing;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes for replica routing. A write request runs entirely on the
+ * primary, including the reads it makes outside a transaction, and leaves a
+ * cookie that pins the same client's following requests to the primary for
+ * {@code sticky-window}, the time a replica is allowed to lag behind.
+ */
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+	
+	public static final String COOKIE_NAME = "blog-primary-until";
+	
+	private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), 
+														   HttpMethod.OPTIONS.name());
+	
+	private final Duration stickyWindow;
+	
+	public PrimaryStickinessFilter(Duration stickyWindow) {
+		super();
+		this.stickyWindow = stickyWindow;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean write = !SAFE_METHODS.contains(request.getMethod());
+		if(write) {
+			// set before the chain runs, the response may be committed by the time it returns
+			long until = System.currentTimeMillis() + stickyWindow.toMillis();
+			ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, String.valueOf(until))
+												  .path("/")
+												  .maxAge(stickyWindow)
+												  .httpOnly(true)
+												  .build();
+			response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+		}
+		
+		if(write || this.isSticky(request))
+			RoutingContext.forcePrimary();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			RoutingContext.clear();
+		}
+	}
+	
+	private boolean isSticky(HttpServletRequest request) {
+		if(request.getCookies() == null)
+			return false;
+		
+		for(Cookie cookie : request.getCookies()) {
+			if(COOKIE_NAME.equals(cookie.getName())) {
+				try {
+					return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+				} catch (NumberFormatException exception) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+}
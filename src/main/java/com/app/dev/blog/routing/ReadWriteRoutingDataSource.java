@@ -0,0 +1,51 @@
+package com.app.dev.blog.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica and
+ * everything else to the primary. The read-only flag is only known once the
+ * transaction has started, so this must sit behind a
+ * {@link LazyConnectionDataSourceProxy} that defers fetching the connection
+ * until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+	
+	public static final String PRIMARY = "primary";
+	
+	private final ReplicaSelector replicaSelector;
+	
+	private final MeterRegistry meterRegistry;
+
+	public ReadWriteRoutingDataSource(DataSource primary, ReplicaSelector replicaSelector, MeterRegistry meterRegistry) {
+		super();
+		this.replicaSelector = replicaSelector;
+		this.meterRegistry = meterRegistry;
+		
+		Map<Object, Object> targets = new HashMap<>(replicaSelector.getReplicas());
+		targets.put(PRIMARY, primary);
+		this.setTargetDataSources(targets);
+		this.setDefaultTargetDataSource(primary);
+		this.afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		String target = PRIMARY;
+		if(!RoutingContext.isPrimaryForced() && TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			target = replicaSelector.next().orElse(PRIMARY);
+		
+		RoutingContext.routed(!PRIMARY.equals(target));
+		meterRegistry.counter("blog.datasource.connections", "target", target).increment();
+		return target;
+	}
+}
@@ -0,0 +1,190 @@
+package com.app.dev.blog.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Round-robins reads over the replicas that passed their last health check.
+ * A replica is healthy when it answers and, with the lag check on, reports
+ * running replication no more than {@code max-lag} behind its source. With no
+ * healthy replica left, reads fall back to the primary.
+ *
+ * <p>Checks run on threads of their own rather than the shared scheduler, one
+ * per replica, and a replica that has not answered within
+ * {@code check-timeout} counts as unhealthy. A check still hanging from an
+ * earlier round, e.g. waiting for a pool connection to an unreachable host,
+ * is not started again until it finishes.
+ */
+public class ReplicaSelector implements AutoCloseable {
+	
+	private static final Logger log = LoggerFactory.getLogger(ReplicaSelector.class);
+	
+	private static final String LAG_QUERY = "SHOW REPLICA STATUS";
+	
+	private static final String LAG_COLUMN = "Seconds_Behind_Source";
+	
+	private final Map<String, DataSource> replicas;
+	
+	private final Duration maxLag;
+	
+	private final boolean lagCheck;
+	
+	private final Duration checkTimeout;
+	
+	private final ScheduledExecutorService executor;
+	
+	private final Map<String, Future<Boolean>> inFlight = new HashMap<>();
+	
+	private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+	
+	private final AtomicInteger next = new AtomicInteger();
+	
+	private volatile List<String> healthy = List.of();
+
+	public ReplicaSelector(Map<String, DataSource> replicas, Duration maxLag, boolean lagCheck, Duration checkTimeout, 
+			MeterRegistry meterRegistry) {
+		super();
+		this.replicas = replicas;
+		this.maxLag = maxLag;
+		this.lagCheck = lagCheck;
+		this.checkTimeout = checkTimeout;
+		// one thread schedules the rounds, the others run the checks
+		this.executor = Executors.newScheduledThreadPool(replicas.size() + 1, runnable -> {
+			Thread thread = new Thread(runnable, "replica-health-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		Gauge.builder("blog.datasource.replicas.healthy", this, selector -> selector.healthy.size())
+			 .description("Replicas currently receiving reads")
+			 .register(meterRegistry);
+		for(String name : replicas.keySet())
+			Gauge.builder("blog.datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+				 .description("Seconds behind source at the last check, NaN when not replicating or unreachable")
+				 .baseUnit("seconds")
+				 .tag("replica", name)
+				 .register(meterRegistry);
+	}
+	
+	public Map<String, DataSource> getReplicas() {
+		return Collections.unmodifiableMap(replicas);
+	}
+	
+	public Optional<String> next() {
+		List<String> candidates = healthy;
+		if(candidates.isEmpty())
+			return Optional.empty();
+		
+		return Optional.of(candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size())));
+	}
+	
+	public List<String> healthy() {
+		return healthy;
+	}
+	
+	/**
+	 * Checks the replicas every {@code interval} from now on.
+	 */
+	public void start(Duration interval) {
+		long delay = interval.toNanos();
+		executor.scheduleWithFixedDelay(this::check, delay, delay, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Checks every replica in parallel and waits at most {@code check-timeout}
+	 * for the round.
+	 */
+	public synchronized void check() {
+		long deadline = System.nanoTime() + checkTimeout.toNanos();
+		replicas.forEach((name, dataSource) -> 
+			inFlight.computeIfAbsent(name, key -> executor.submit(() -> this.isHealthy(name, dataSource))));
+		
+		List<String> passed = new ArrayList<>(replicas.size());
+		for(String name : replicas.keySet()) {
+			if(this.await(name, deadline))
+				passed.add(name);
+		}
+		
+		if(!passed.equals(healthy))
+			log.info("Replicas receiving reads changed from {} to {}", healthy, passed);
+		healthy = List.copyOf(passed);
+	}
+	
+	private boolean await(String name, long deadline) {
+		Future<Boolean> result = inFlight.get(name);
+		try {
+			boolean passed = result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			inFlight.remove(name);
+			return passed;
+		} catch (TimeoutException exception) {
+			lagSeconds.put(name, Double.NaN);
+			log.debug("Health check of replica {} did not answer within {}", name, checkTimeout);
+			return false;
+		} catch (ExecutionException exception) {
+			inFlight.remove(name);
+			lagSeconds.put(name, Double.NaN);
+			log.debug("Health check of replica {} failed", name, exception.getCause());
+			return false;
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	private boolean isHealthy(String name, DataSource dataSource) {
+		try {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			jdbcTemplate.setQueryTimeout((int) Math.max(1, checkTimeout.toSeconds()));
+			if(!lagCheck) {
+				jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+				return true;
+			}
+			
+			// no row when the server is not a replica, a null lag when replication is stopped
+			Long lag = jdbcTemplate.query(LAG_QUERY, 
+					resultSet -> resultSet.next() ? resultSet.getObject(LAG_COLUMN, Long.class) : null);
+			lagSeconds.put(name, lag == null ? Double.NaN : lag.doubleValue());
+			return lag != null && lag <= maxLag.toSeconds();
+		} catch (DataAccessException exception) {
+			lagSeconds.put(name, Double.NaN);
+			log.debug("Health check of replica {} failed", name, exception);
+			return false;
+		}
+	}
+	
+	/**
+	 * Stops the checks and closes the replica pools; they are not beans of
+	 * their own.
+	 */
+	@Override
+	public void close() throws Exception {
+		executor.shutdownNow();
+		for(DataSource dataSource : replicas.values()) {
+			if(dataSource instanceof AutoCloseable closeable)
+				closeable.close();
+		}
+	}
+}
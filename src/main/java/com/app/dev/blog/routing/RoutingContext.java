@@ -0,0 +1,44 @@
+package com.app.dev.blog.routing;
+
+/**
+ * Per-request override that pins every connection of the current thread to
+ * the primary, set by {@link PrimaryStickinessFilter}, and a record of where
+ * the thread's latest connection was routed.
+ */
+public final class RoutingContext {
+	
+	private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+	
+	private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+	
+	private RoutingContext() {
+	}
+	
+	public static void forcePrimary() {
+		PRIMARY_FORCED.set(Boolean.TRUE);
+	}
+	
+	public static boolean isPrimaryForced() {
+		return PRIMARY_FORCED.get() != null;
+	}
+	
+	static void routed(boolean replica) {
+		if(replica)
+			REPLICA_READ.set(Boolean.TRUE);
+		else
+			REPLICA_READ.remove();
+	}
+	
+	/**
+	 * Whether the latest connection of the current thread went to a replica,
+	 * whose data may lag behind writes that are already committed.
+	 */
+	public static boolean isReplicaRead() {
+		return REPLICA_READ.get() != null;
+	}
+	
+	public static void clear() {
+		PRIMARY_FORCED.remove();
+		REPLICA_READ.remove();
+	}
+}
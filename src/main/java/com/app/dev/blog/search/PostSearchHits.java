@@ -0,0 +1,10 @@
+package com.app.dev.blog.search;
+
+import java.util.List;
+
+/**
+ * One page of search results: post ids in rank order plus the total number of
+ * matching posts.
+ */
+public record PostSearchHits(List<Long> ids, long totalHits) {
+}
@@ -0,0 +1,187 @@
+package com.app.dev.blog.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dev.blog.exception.BlogApiException;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostView;
+import com.app.dev.blog.repository.PostRepository;
+
+/**
+ * In-process Lucene index over post title, description and content. It is
+ * rebuilt from the posts table once all singletons exist, before the web server
+ * starts taking traffic, and kept current by the post write paths, so each
+ * instance sees its own writes immediately and writes made by other instances
+ * after its next restart. Only ids are stored; result rows are read back from
+ * the database so they are never staler than a listing.
+ */
+@Component
+public class PostSearchIndex implements SmartInitializingSingleton, DisposableBean {
+	
+	private static final String ID = "id";
+	
+	private static final String TITLE = "title";
+	
+	private static final String DESCRIPTION = "description";
+	
+	private static final String CONTENT = "content";
+	
+	private static final Map<String, Float> BOOSTS = Map.of(TITLE, 3f, DESCRIPTION, 2f, CONTENT, 1f);
+	
+	// deep pages cost as much as collecting every hit before them
+	private static final int MAX_WINDOW = 10_000;
+	
+	private final Directory directory = new ByteBuffersDirectory();
+	
+	private final Analyzer analyzer = new StandardAnalyzer();
+	
+	private final IndexWriter indexWriter;
+	
+	private final SearcherManager searcherManager;
+	
+	private PostRepository postRepository;
+	
+	private TransactionTemplate transactionTemplate;
+
+	public PostSearchIndex(PostRepository postRepository, PlatformTransactionManager transactionManager) throws IOException {
+		super();
+		this.postRepository = postRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+		this.searcherManager = new SearcherManager(indexWriter, null);
+	}
+	
+	@Override
+	public void afterSingletonsInstantiated() {
+		transactionTemplate.executeWithoutResult(status -> {
+			try(Stream<PostView> posts = postRepository.streamAllForExport()) {
+				posts.forEach(post -> this.write(post.getId(), post.getTitle(), post.getDescription(), post.getContent()));
+			}
+		});
+		this.refresh();
+	}
+	
+	public void index(long id, String title, String description, String content) {
+		this.write(id, title, description, content);
+		this.refresh();
+	}
+	
+	public void indexAll(Collection<PostEntity> posts) {
+		posts.forEach(post -> this.write(post.getId(), post.getTitle(), post.getDescription(), post.getContent()));
+		this.refresh();
+	}
+	
+	public void delete(long id) {
+		try {
+			indexWriter.deleteDocuments(new Term(ID, Long.toString(id)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.refresh();
+	}
+	
+	public PostSearchHits search(String text, int pageNo, int pageSize) {
+		if(text == null || text.isBlank())
+			throw new BlogApiException("Search query must not be blank");
+		if(pageNo < 0)
+			throw new BlogApiException("pageNo must not be negative");
+		if(pageSize < 1)
+			throw new BlogApiException("pageSize must be at least 1");
+		if((long) (pageNo + 1) * pageSize > MAX_WINDOW)
+			throw new BlogApiException("Search results are limited to the first " + MAX_WINDOW + " hits");
+		
+		Query query = this.parse(text);
+		try {
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				// exact totals, the default collector stops counting after 1000 hits
+				TopScoreDocCollector collector = TopScoreDocCollector.create((pageNo + 1) * pageSize, Integer.MAX_VALUE);
+				searcher.search(query, collector);
+				TopDocs topDocs = collector.topDocs(pageNo * pageSize, pageSize);
+				
+				StoredFields storedFields = searcher.storedFields();
+				List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+				for(ScoreDoc scoreDoc : topDocs.scoreDocs)
+					ids.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(ID)));
+				return new PostSearchHits(ids, collector.getTotalHits());
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private Query parse(String text) {
+		MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[] {TITLE, DESCRIPTION, CONTENT}, analyzer, BOOSTS);
+		try {
+			// plain text search, query syntax in user input is taken literally
+			return parser.parse(QueryParser.escape(text));
+		} catch (ParseException e) {
+			throw new BlogApiException("Invalid search query");
+		}
+	}
+	
+	private void write(long id, String title, String description, String content) {
+		Document document = new Document();
+		document.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+		document.add(new TextField(TITLE, title, Field.Store.NO));
+		document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+		document.add(new TextField(CONTENT, content, Field.Store.NO));
+		try {
+			indexWriter.updateDocument(new Term(ID, Long.toString(id)), document);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void refresh() {
+		try {
+			// blocking, so the caller reads its own write
+			searcherManager.maybeRefreshBlocking();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public void destroy() throws IOException {
+		searcherManager.close();
+		indexWriter.close();
+		directory.close();
+	}
+}
@@ -0,0 +1,101 @@
+package com.app.dev.blog.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.TitleView;
+import com.app.dev.blog.repository.PostRepository;
+
+/**
+ * Sorted in-memory map of lower-cased titles, so a prefix lookup is a range
+ * scan over at most {@code limit} entries and never reaches the database.
+ * Like {@link PostSearchIndex} it is loaded before the server takes traffic
+ * and kept current by the post write paths of this instance.
+ */
+@Component
+public class TitleSuggestIndex implements SmartInitializingSingleton {
+	
+	// keeps keys unique even if two titles only differ in case
+	private static final char ID_SEPARATOR = '\u0000';
+	
+	private final NavigableMap<String, PostSuggestionDto> titles = new ConcurrentSkipListMap<>();
+	
+	private final Map<Long, String> keysById = new ConcurrentHashMap<>();
+	
+	private PostRepository postRepository;
+	
+	private TransactionTemplate transactionTemplate;
+
+	public TitleSuggestIndex(PostRepository postRepository, PlatformTransactionManager transactionManager) {
+		super();
+		this.postRepository = postRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+	}
+	
+	@Override
+	public void afterSingletonsInstantiated() {
+		transactionTemplate.executeWithoutResult(status -> {
+			try(Stream<TitleView> posts = postRepository.streamAllTitles()) {
+				posts.forEach(post -> this.put(post.getId(), post.getTitle()));
+			}
+		});
+	}
+	
+	/**
+	 * The two maps change under the id's entry lock in {@code keysById}, so a
+	 * concurrent rename and delete of one post can't leave an orphaned title.
+	 */
+	public void put(long id, String title) {
+		String key = normalize(title) + ID_SEPARATOR + id;
+		keysById.compute(id, (postId, previous) -> {
+			if(previous != null && !previous.equals(key))
+				titles.remove(previous);
+			titles.put(key, new PostSuggestionDto(id, title));
+			return key;
+		});
+	}
+	
+	public void putAll(Collection<PostEntity> posts) {
+		posts.forEach(post -> this.put(post.getId(), post.getTitle()));
+	}
+	
+	public void remove(long id) {
+		keysById.computeIfPresent(id, (postId, key) -> {
+			titles.remove(key);
+			return null;
+		});
+	}
+	
+	public List<PostSuggestionDto> suggest(String prefix, int limit) {
+		String from = normalize(prefix);
+		if(from.isEmpty())
+			return List.of();
+		
+		List<PostSuggestionDto> suggestions = new ArrayList<>(limit);
+		for(Map.Entry<String, PostSuggestionDto> entry : titles.tailMap(from, true).entrySet()) {
+			if(suggestions.size() == limit || !entry.getKey().startsWith(from))
+				break;
+			suggestions.add(entry.getValue());
+		}
+		return suggestions;
+	}
+	
+	private static String normalize(String text) {
+		return text.strip().toLowerCase(Locale.ROOT);
+	}
+}
@@ -2,6 +2,8 @@ package com.app.dev.blog.service;
 
 import java.util.List;
 
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentCursorPageDto;
 import com.app.dev.blog.dtos.CommentDto;
 import com.app.dev.blog.dtos.CommentUpdateDto;
 
@@ -9,8 +11,14 @@ public interface CommentService {
 	
 	public CommentDto createComment(long postId, CommentDto commentDto);
 	
+	public List<BulkItemResultDto> createComments(long postId, List<CommentDto> commentDtos);
+	
 	public List<CommentDto> getCommentsByPostId(long postId);
 	
+	public CommentCursorPageDto getCommentsAfter(long postId, String after, int limit);
+	
+	public String getCommentsETag(long postId);
+	
 	public CommentDto getCommentById(long postId, long commentId);
 	
 	public CommentDto updateComment(long postId, long commentId, CommentUpdateDto commentDto);
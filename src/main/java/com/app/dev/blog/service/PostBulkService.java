@@ -0,0 +1,14 @@
+package com.app.dev.blog.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.app.dev.blog.dtos.BulkImportSummaryDto;
+
+public interface PostBulkService {
+	
+	public BulkImportSummaryDto importPosts(InputStream inputStream) throws IOException;
+	
+	public void exportPosts(boolean withComments, OutputStream outputStream) throws IOException;
+}
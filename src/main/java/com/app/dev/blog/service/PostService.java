@@ -1,10 +1,15 @@
 package com.app.dev.blog.service;
 
+import java.util.List;
+
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import com.app.dev.blog.dtos.PostCursorPageDto;
 import com.app.dev.blog.dtos.PostDto;
 import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.dtos.PostSliceDto;
+import com.app.dev.blog.dtos.PostSuggestionDto;
 
 public interface PostService {
 	
@@ -12,8 +17,18 @@ public interface PostService {
 	
 	public PostPageDto getAllPosts(int pageNo, int pageSize, String sortBy, String sortDir);
 	
+	public PostSliceDto getPostSlice(int pageNo, int pageSize, String sortBy, String sortDir);
+	
+	public PostCursorPageDto getPostsAfter(String after, int pageSize, String sortBy, String sortDir);
+	
+	public PostPageDto searchPosts(String query, int pageNo, int pageSize);
+	
+	public List<PostSuggestionDto> suggestTitles(String prefix, int limit);
+	
 	public PostDto getPostById(long id);
 	
+	public String getPostETag(long id);
+	
 	public PostDto updatePost(@PathVariable("id") long id, @RequestBody PostDto postDto);
 	
 	public void deletePostById(long id);
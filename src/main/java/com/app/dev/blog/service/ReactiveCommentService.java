@@ -0,0 +1,10 @@
+package com.app.dev.blog.service;
+
+import com.app.dev.blog.dtos.CommentDto;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveCommentService {
+	
+	public Flux<CommentDto> getCommentsByPostId(long postId);
+}
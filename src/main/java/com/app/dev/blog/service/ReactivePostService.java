@@ -0,0 +1,13 @@
+package com.app.dev.blog.service;
+
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostPageDto;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactivePostService {
+	
+	public Mono<PostPageDto> getAllPosts(int pageNo, int pageSize, String sortBy, String sortDir);
+	
+	public Mono<PostDto> getPostById(long id);
+}
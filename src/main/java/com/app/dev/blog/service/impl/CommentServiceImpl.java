@@ -1,9 +1,26 @@
 package com.app.dev.blog.service.impl;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.config.CacheConfig;
+import com.app.dev.blog.config.MetricsConfig;
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentCursorPageDto;
 import com.app.dev.blog.dtos.CommentDto;
 import com.app.dev.blog.dtos.CommentUpdateDto;
 import com.app.dev.blog.exception.BlogApiException;
@@ -11,92 +28,198 @@ import com.app.dev.blog.exception.ResourceNotFoundException;
 import com.app.dev.blog.mapper.CommentMapper;
 import com.app.dev.blog.model.CommentEntity;
 import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.VersionView;
 import com.app.dev.blog.repository.CommentRepository;
 import com.app.dev.blog.repository.PostRepository;
 import com.app.dev.blog.service.CommentService;
+import com.app.dev.blog.util.AfterCommit;
+import com.app.dev.blog.util.CommentConstant;
+import com.app.dev.blog.util.CursorCodec;
+import com.app.dev.blog.util.ETags;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class CommentServiceImpl implements CommentService {
 	
+	private static final String ID = "id";
+	
 	private CommentRepository commentRepository;
 	
 	private CommentMapper commentMapper;
 	
 	private PostRepository postRepository;
+	
+	private Validator validator;
+	
+	private PostsVersion postsVersion;
 
 	public CommentServiceImpl(CommentRepository commentRepository, CommentMapper commentMapper,
-			PostRepository postRepository) {
+			PostRepository postRepository, Validator validator, PostsVersion postsVersion) {
 		super();
 		this.commentRepository = commentRepository;
 		this.commentMapper = commentMapper;
 		this.postRepository = postRepository;
+		this.validator = validator;
+		this.postsVersion = postsVersion;
 	}
 
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.POST_CACHE, key = "#postId")
 	public CommentDto createComment(long postId, CommentDto commentDto) {
-		return postRepository.findById(postId)
-			.map(postEntity -> this.create(postEntity, commentMapper.convertCommentDtoToEntity(commentDto)))
-			.orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
-	}
-
-	private CommentDto create(PostEntity postEntity, CommentEntity commentEntity) {
-		commentEntity.setPostEntity(postEntity);
+		// the counter update doubles as the existence check
+		this.adjustCommentCount(postId, 1);
+		
+		CommentEntity commentEntity = commentMapper.convertCommentDtoToEntity(commentDto);
+		commentEntity.setPostEntity(postRepository.getReferenceById(postId));
 		CommentEntity savedComment = commentRepository.save(commentEntity);
 		return commentMapper.convertCommentEntityToDto(savedComment);
 	}
 	
+	private void adjustCommentCount(long postId, long delta) {
+		if(postRepository.adjustCommentCount(postId, delta) == 0)
+			throw new ResourceNotFoundException("Post", "id", postId);
+		AfterCommit.run(postsVersion::bump);
+	}
+	
 	@Override
-	public List<CommentDto> getCommentsByPostId(long postId) {
-		if(!commentRepository.existsByPostEntity_Id(postId))
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.POST_CACHE, key = "#postId")
+	public List<BulkItemResultDto> createComments(long postId, List<CommentDto> commentDtos) {
+		if(commentDtos.size() > CommentConstant.MAX_BATCH_SIZE)
+			throw new BlogApiException("A batch may contain at most " + CommentConstant.MAX_BATCH_SIZE + " comments");
+		if(!postRepository.existsById(postId))
 			throw new ResourceNotFoundException("Post", "id", postId);
 		
+		PostEntity postEntity = postRepository.getReferenceById(postId);
+		List<BulkItemResultDto> results = new ArrayList<>(commentDtos.size());
+		List<CommentEntity> accepted = new ArrayList<>(commentDtos.size());
+		
+		for(int index = 0; index < commentDtos.size(); index++) {
+			Set<ConstraintViolation<CommentDto>> violations = validator.validate(commentDtos.get(index));
+			if(!violations.isEmpty()) {
+				results.add(BulkItemResultDto.failed(index, this.toErrors(violations)));
+				continue;
+			}
+			CommentEntity commentEntity = commentMapper.convertCommentDtoToEntity(commentDtos.get(index));
+			commentEntity.setPostEntity(postEntity);
+			accepted.add(commentEntity);
+			results.add(BulkItemResultDto.created(index, null));
+		}
+		
+		// ids come from the pooled sequence on persist, the inserts themselves are batched on flush
+		List<CommentEntity> saved = commentRepository.saveAll(accepted);
+		if(!saved.isEmpty())
+			this.adjustCommentCount(postId, saved.size());
+		int next = 0;
+		for(BulkItemResultDto result : results) {
+			if(result.getStatus() == BulkItemResultDto.Status.CREATED)
+				result.setId(saved.get(next++).getId());
+		}
+		return results;
+	}
+	
+	private Map<String, String> toErrors(Set<ConstraintViolation<CommentDto>> violations) {
+		return violations.stream()
+						 .collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(), 
+								 				   ConstraintViolation::getMessage, 
+								 				   (first, second) -> first));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<CommentDto> getCommentsByPostId(long postId) {
 		List<CommentEntity> comments = commentRepository.findByPostEntity_Id(postId);
+		if(comments.isEmpty())
+			throw new ResourceNotFoundException("Post", "id", postId);
+		
 		return commentMapper.convertCommentEntityListToDtoList(comments);
 	}
 	
 	@Override
-	public CommentDto getCommentById(long postId, long commentId) {
-		if(!postRepository.existsById(postId))
+	@Transactional(readOnly = true)
+	public CommentCursorPageDto getCommentsAfter(long postId, String after, int limit) {
+		if(limit < 1 || limit > CommentConstant.MAX_PAGE_SIZE)
+			throw new BlogApiException("limit must be between 1 and " + CommentConstant.MAX_PAGE_SIZE);
+		
+		Object afterId = CursorCodec.decode(after, ID).getKeys().get(ID);
+		Slice<CommentEntity> slice = commentRepository.findByPostEntity_IdAndIdGreaterThan(postId, 
+				afterId == null ? 0 : (Long) afterId, PageRequest.of(0, limit, Sort.by(ID)));
+		if(afterId == null && !slice.hasContent() && !postRepository.existsById(postId))
 			throw new ResourceNotFoundException("Post", "id", postId);
 		
-		CommentEntity commentEntity =  commentRepository.findById(commentId)
-			.orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
+		CommentCursorPageDto commentCursorPageDto = new CommentCursorPageDto();
+		commentCursorPageDto.setContent(commentMapper.convertCommentEntityListToDtoList(slice.getContent()));
+		commentCursorPageDto.setPageSize(limit);
+		commentCursorPageDto.setLast(!slice.hasNext());
+		if(slice.hasNext()) {
+			Long lastId = slice.getContent().get(slice.getNumberOfElements() - 1).getId();
+			commentCursorPageDto.setNextCursor(CursorCodec.encode(ID, (KeysetScrollPosition) ScrollPosition.forward(Map.of(ID, lastId))));
+		}
 		
-		if(commentEntity.getPostEntity().getId() != postId)
-			throw new BlogApiException("Comment does not belongs to post");
+		return commentCursorPageDto;
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public String getCommentsETag(long postId) {
+		List<VersionView> versions = commentRepository.findVersionsByPostEntity_IdOrderByIdAsc(postId);
+		if(versions.isEmpty())
+			throw new ResourceNotFoundException("Post", "id", postId);
+		
+		return ETags.of("comments", versions, postId);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public CommentDto getCommentById(long postId, long commentId) {
+		CommentEntity commentEntity = this.findOwnedComment(postId, commentId);
 		
 		return commentMapper.convertCommentEntityToDto(commentEntity);
 	}
 	
 	@Override
+	@Transactional
 	public CommentDto updateComment(long postId, long commentId, CommentUpdateDto commentDto) {
-		if(!postRepository.existsById(postId))
-			throw new ResourceNotFoundException("Post", "id", postId);
+		CommentEntity commentEntity = this.findOwnedComment(postId, commentId);
 		
-		CommentEntity commentEntity = commentRepository.findById(commentId)
-			.orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
-		
-		if(commentEntity.getPostEntity().getId() != postId)
-			throw new BlogApiException("Comment does not belongs to post");
+		if(commentDto.getVersion() != null && !commentDto.getVersion().equals(commentEntity.getVersion()))
+			throw new ObjectOptimisticLockingFailureException(CommentEntity.class, commentId);
 		
 		commentMapper.updateCommentEntity(commentDto, commentEntity);
 		
-		CommentEntity updatedComment = commentRepository.save(commentEntity);
+		// flushed here rather than on commit, so the returned dto carries the new version
+		CommentEntity updatedComment = commentRepository.saveAndFlush(commentEntity);
 		
 		return commentMapper.convertCommentEntityToDto(updatedComment);
 	}
 	
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.POST_CACHE, key = "#postId")
 	public void deleteCommetById(long postId, long commentId) {
-		if(!postRepository.existsById(postId))
-			throw new ResourceNotFoundException("Post", "id", postId);
-		
-		CommentEntity commentEntity = commentRepository.findById(commentId)
-			.orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
-		
-		if(commentEntity.getPostEntity().getId() != postId)
-			throw new BlogApiException("Comment does not belongs to post");
+		CommentEntity commentEntity = this.findOwnedComment(postId, commentId);
 		
 		commentRepository.delete(commentEntity);
+		this.adjustCommentCount(postId, -1);
+	}
+	
+	/**
+	 * Loads a comment filtered on both ids in one query. The extra existence
+	 * checks only run on a miss, to tell an unknown post or comment (404) apart
+	 * from a comment of another post (400).
+	 */
+	private CommentEntity findOwnedComment(long postId, long commentId) {
+		return commentRepository.findByIdAndPostEntity_Id(commentId, postId).orElseThrow(() -> {
+			if(!postRepository.existsById(postId))
+				return new ResourceNotFoundException("Post", "id", postId);
+			if(!commentRepository.existsById(commentId))
+				return new ResourceNotFoundException("Comment", "id", commentId);
+			return new BlogApiException("Comment does not belongs to post");
+		});
 	}
 }
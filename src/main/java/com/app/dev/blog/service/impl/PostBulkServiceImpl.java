@@ -0,0 +1,275 @@
+package com.app.dev.blog.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.dtos.BulkImportSummaryDto;
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostExportDto;
+import com.app.dev.blog.mapper.PostMapper;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostCommentView;
+import com.app.dev.blog.projection.PostView;
+import com.app.dev.blog.repository.PostRepository;
+import com.app.dev.blog.search.PostSearchIndex;
+import com.app.dev.blog.search.TitleSuggestIndex;
+import com.app.dev.blog.service.PostBulkService;
+import com.app.dev.blog.util.PostConstant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+@Service
+public class PostBulkServiceImpl implements PostBulkService {
+	
+	private static final String DUPLICATE_TITLE = "Post title already exists";
+	
+	// MySQL ER_DUP_ENTRY, its SQLState 23000 is shared by every integrity violation
+	private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+	
+	private static final String UNIQUE_VIOLATION_STATE = "23505";
+	
+	private PostRepository postRepository;
+	
+	private PostMapper postMapper;
+	
+	private ObjectReader postReader;
+	
+	private ObjectWriter exportWriter;
+	
+	private JsonFactory jsonFactory;
+	
+	private Validator validator;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private EntityManager entityManager;
+	
+	private PostCountCache postCountCache;
+	
+	private PostsVersion postsVersion;
+	
+	private PostSearchIndex postSearchIndex;
+	
+	private TitleSuggestIndex titleSuggestIndex;
+
+	public PostBulkServiceImpl(PostRepository postRepository, PostMapper postMapper, ObjectMapper objectMapper,
+			Validator validator, PlatformTransactionManager transactionManager, EntityManager entityManager,
+			PostCountCache postCountCache, PostsVersion postsVersion, PostSearchIndex postSearchIndex,
+			TitleSuggestIndex titleSuggestIndex) {
+		super();
+		this.postRepository = postRepository;
+		this.postMapper = postMapper;
+		this.postReader = objectMapper.readerFor(PostDto.class);
+		// let the generator buffer lines instead of flushing the response after each one
+		this.exportWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.jsonFactory = objectMapper.getFactory();
+		this.validator = validator;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.entityManager = entityManager;
+		this.postCountCache = postCountCache;
+		this.postsVersion = postsVersion;
+		this.postSearchIndex = postSearchIndex;
+		this.titleSuggestIndex = titleSuggestIndex;
+	}
+
+	@Override
+	public BulkImportSummaryDto importPosts(InputStream inputStream) throws IOException {
+		BulkImportSummaryDto summary = new BulkImportSummaryDto();
+		List<PendingPost> chunk = new ArrayList<>(PostConstant.IMPORT_CHUNK_SIZE);
+		
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		String line;
+		int lineNo = 0;
+		while((line = reader.readLine()) != null) {
+			lineNo++;
+			if(line.isBlank())
+				continue;
+			
+			summary.setTotal(summary.getTotal() + 1);
+			PendingPost pending = this.parse(lineNo, line, summary);
+			if(pending == null)
+				continue;
+			
+			chunk.add(pending);
+			if(chunk.size() == PostConstant.IMPORT_CHUNK_SIZE) {
+				this.persist(chunk, summary);
+				chunk.clear();
+			}
+		}
+		if(!chunk.isEmpty())
+			this.persist(chunk, summary);
+		
+		if(summary.getCreated() > 0)
+			postCountCache.refresh();
+		return summary;
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public void exportPosts(boolean withComments, OutputStream outputStream) throws IOException {
+		try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+			// the caller owns the output stream
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			if(withComments) {
+				try(Stream<PostCommentView> rows = postRepository.streamAllWithCommentsForExport()) {
+					this.writeGrouped(rows.iterator(), generator);
+				}
+			} else {
+				try(Stream<PostView> posts = postRepository.streamAllForExport()) {
+					Iterator<PostView> iterator = posts.iterator();
+					while(iterator.hasNext())
+						this.writeLine(generator, postMapper.convertPostViewToDto(iterator.next()));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Rows arrive ordered by post id, so only the comments of the post being
+	 * written are ever held in memory.
+	 */
+	private void writeGrouped(Iterator<PostCommentView> rows, JsonGenerator generator) throws IOException {
+		PostExportDto current = null;
+		while(rows.hasNext()) {
+			PostCommentView row = rows.next();
+			if(current == null || !current.getId().equals(row.getId())) {
+				if(current != null)
+					this.writeLine(generator, current);
+				current = postMapper.convertPostViewToExportDto(row);
+			}
+			if(row.getCommentId() != null)
+				current.getComments().add(new CommentDto(row.getCommentId(), row.getCommentName(), 
+						row.getCommentEmail(), row.getCommentBody(), row.getCommentVersion()));
+		}
+		if(current != null)
+			this.writeLine(generator, current);
+	}
+	
+	private void writeLine(JsonGenerator generator, Object value) throws IOException {
+		exportWriter.writeValue(generator, value);
+		generator.writeRaw('\n');
+	}
+	
+	private PendingPost parse(int lineNo, String line, BulkImportSummaryDto summary) {
+		PostDto postDto;
+		try {
+			postDto = postReader.readValue(line);
+		} catch (JsonProcessingException e) {
+			this.fail(summary, lineNo, Map.of("line", "Malformed JSON: " + e.getOriginalMessage()));
+			return null;
+		}
+		
+		Set<ConstraintViolation<PostDto>> violations = validator.validate(postDto);
+		if(!violations.isEmpty()) {
+			this.fail(summary, lineNo, violations.stream()
+					.collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(), 
+											  ConstraintViolation::getMessage, 
+											  (first, second) -> first)));
+			return null;
+		}
+		return new PendingPost(lineNo, postDto);
+	}
+	
+	private void persist(List<PendingPost> chunk, BulkImportSummaryDto summary) {
+		Set<String> taken = new HashSet<>(postRepository.findExistingTitles(
+				chunk.stream().map(pending -> pending.postDto().getTitle()).toList()));
+		
+		List<PendingPost> accepted = new ArrayList<>(chunk.size());
+		for(PendingPost pending : chunk) {
+			if(taken.add(pending.postDto().getTitle()))
+				accepted.add(pending);
+			else
+				this.fail(summary, pending.lineNo(), Map.of("title", DUPLICATE_TITLE));
+		}
+		
+		try {
+			List<PostEntity> saved = transactionTemplate.execute(status -> postRepository.saveAll(
+					accepted.stream().map(pending -> postMapper.convertPostDtoToEntity(pending.postDto())).toList()));
+			summary.setCreated(summary.getCreated() + accepted.size());
+			postSearchIndex.indexAll(saved);
+			titleSuggestIndex.putAll(saved);
+		} catch (DataIntegrityViolationException e) {
+			// lost a race with a concurrent writer (or a case-insensitive title clash),
+			// fall back to one transaction per row to find the offending lines
+			entityManager.clear();
+			accepted.forEach(pending -> this.persistOne(pending, summary));
+		}
+		
+		// keep the request scoped persistence context from growing with the stream
+		entityManager.clear();
+		postsVersion.bump();
+	}
+	
+	private void persistOne(PendingPost pending, BulkImportSummaryDto summary) {
+		try {
+			PostEntity postEntity = postMapper.convertPostDtoToEntity(pending.postDto());
+			PostEntity saved = transactionTemplate.execute(status -> postRepository.save(postEntity));
+			summary.setCreated(summary.getCreated() + 1);
+			postSearchIndex.indexAll(List.of(saved));
+			titleSuggestIndex.putAll(List.of(saved));
+		} catch (DataIntegrityViolationException e) {
+			entityManager.clear();
+			this.fail(summary, pending.lineNo(), this.isDuplicateKey(e) 
+					? Map.of("title", DUPLICATE_TITLE)
+					: Map.of("line", "Rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+		}
+	}
+	
+	/**
+	 * JPA reports every constraint as a plain DataIntegrityViolationException,
+	 * so a unique key violation is recognised from the driver's SQLException.
+	 */
+	private boolean isDuplicateKey(DataIntegrityViolationException exception) {
+		if(exception instanceof DuplicateKeyException)
+			return true;
+		for(Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+			if(cause instanceof SQLException sqlException)
+				return sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY 
+						|| UNIQUE_VIOLATION_STATE.equals(sqlException.getSQLState());
+		}
+		return false;
+	}
+	
+	private void fail(BulkImportSummaryDto summary, int lineNo, Map<String, String> errors) {
+		summary.setFailed(summary.getFailed() + 1);
+		if(summary.getFailures().size() < PostConstant.MAX_IMPORT_FAILURES)
+			summary.getFailures().add(BulkItemResultDto.failed(lineNo, errors));
+	}
+	
+	private record PendingPost(int lineNo, PostDto postDto) {
+	}
+}
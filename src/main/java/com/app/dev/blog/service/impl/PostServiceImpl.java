@@ -1,75 +1,213 @@
 package com.app.dev.blog.service.impl;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.config.CacheConfig;
+import com.app.dev.blog.config.MetricsConfig;
+import com.app.dev.blog.dtos.PostCursorPageDto;
 import com.app.dev.blog.dtos.PostDto;
 import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.dtos.PostSliceDto;
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.exception.BlogApiException;
 import com.app.dev.blog.exception.ResourceNotFoundException;
 import com.app.dev.blog.mapper.PostMapper;
 import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostView;
 import com.app.dev.blog.repository.PostRepository;
+import com.app.dev.blog.search.PostSearchHits;
+import com.app.dev.blog.search.PostSearchIndex;
+import com.app.dev.blog.search.TitleSuggestIndex;
 import com.app.dev.blog.service.PostService;
+import com.app.dev.blog.util.AfterCommit;
+import com.app.dev.blog.util.CursorCodec;
+import com.app.dev.blog.util.ETags;
+import com.app.dev.blog.util.PostConstant;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class PostServiceImpl implements PostService {
 	
 	private PostRepository postRepository;
 	
 	private PostMapper postMapper;
+	
+	private PostCountCache postCountCache;
+	
+	private PostsVersion postsVersion;
+	
+	private PostSearchIndex postSearchIndex;
+	
+	private TitleSuggestIndex titleSuggestIndex;
 
-	public PostServiceImpl(PostRepository postRepository, PostMapper postMapper) {
+	public PostServiceImpl(PostRepository postRepository, PostMapper postMapper, PostCountCache postCountCache,
+			PostsVersion postsVersion, PostSearchIndex postSearchIndex, TitleSuggestIndex titleSuggestIndex) {
 		super();
 		this.postRepository = postRepository;
 		this.postMapper = postMapper;
+		this.postCountCache = postCountCache;
+		this.postsVersion = postsVersion;
+		this.postSearchIndex = postSearchIndex;
+		this.titleSuggestIndex = titleSuggestIndex;
 	}
 
 	@Override
 	public PostDto createPost(PostDto postDto) {
 		PostEntity postEntity = postMapper.convertPostDtoToEntity(postDto);
 		PostEntity created = postRepository.save(postEntity);
+		postCountCache.increment();
+		postsVersion.bump();
+		postSearchIndex.index(created.getId(), created.getTitle(), created.getDescription(), created.getContent());
+		titleSuggestIndex.put(created.getId(), created.getTitle());
 		return postMapper.convertPostEntityToDto(created);
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.POST_PAGE_CACHE, 
+			   key = "@postsVersion.current() + ':' + #pageNo + ':' + #pageSize + ':' + #sortBy + ':' + #sortDir.toLowerCase()",
+			   unless = CacheConfig.UNLESS_REPLICA_READ)
 	public PostPageDto getAllPosts(int pageNo, int pageSize, String sortBy, String sortDir) {
 		
-		if(postRepository.count() == 0)
-			return new PostPageDto();
+		Pageable pageable = PageRequest.of(pageNo, pageSize, this.sort(sortBy, sortDir));
+		Slice<PostView> slice = postRepository.findAllProjectedBy(pageable);
+		// the cached count is only consulted when the slice itself can't tell the total,
+		// and never allowed to contradict what the slice has already seen
+		long seen = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+		Page<PostView> page = PageableExecutionUtils.getPage(slice.getContent(), pageable, 
+				() -> Math.max(postCountCache.get(), seen));
 		
-		Sort sort;
-		if(sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())) {
-			sort = Sort.by(sortBy).ascending();
-		}
-		else {
-			sort = Sort.by(sortBy).descending();
-		}
+		PostPageDto postPageDto = new PostPageDto();
+		postPageDto.setContent(postMapper.convertPostViewListToPostDtoList(page.getContent()));
+		postPageDto.setPageNo(page.getNumber());
+		postPageDto.setPageSize(page.getSize());
+		postPageDto.setTotalElements(page.getTotalElements());
+		postPageDto.setTotalPages(page.getTotalPages());
+		postPageDto.setLast(!slice.hasNext());
+				
+		return postPageDto;
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public PostSliceDto getPostSlice(int pageNo, int pageSize, String sortBy, String sortDir) {
+		Pageable pageable = PageRequest.of(pageNo, pageSize, this.sort(sortBy, sortDir));
+		Slice<PostView> slice = postRepository.findAllProjectedBy(pageable);
+		
+		PostSliceDto postSliceDto = new PostSliceDto();
+		postSliceDto.setContent(postMapper.convertPostViewListToPostDtoList(slice.getContent()));
+		postSliceDto.setPageNo(slice.getNumber());
+		postSliceDto.setPageSize(slice.getSize());
+		postSliceDto.setLast(!slice.hasNext());
+		
+		return postSliceDto;
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public PostCursorPageDto getPostsAfter(String after, int pageSize, String sortBy, String sortDir) {
+		if(pageSize < 1 || pageSize > PostConstant.MAX_PAGE_SIZE)
+			throw new BlogApiException("pageSize must be between 1 and " + PostConstant.MAX_PAGE_SIZE);
+		if(!PostConstant.CURSOR_SORT_PROPERTIES.contains(sortBy))
+			throw new BlogApiException("sortBy must be one of " + PostConstant.CURSOR_SORT_PROPERTIES);
 		
-		Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
-		Page<PostEntity> page = postRepository.findAll(pageable);
+		Sort sort = this.sort(sortBy, sortDir);
+		KeysetScrollPosition position = CursorCodec.decode(after, sortBy);
+		
+		Window<PostView> window = postRepository.findBy(Specification.where(null), 
+				query -> query.as(PostView.class).sortBy(sort).limit(pageSize).scroll(position));
+		
+		PostCursorPageDto postCursorPageDto = new PostCursorPageDto();
+		postCursorPageDto.setContent(postMapper.convertPostViewListToPostDtoList(window.getContent()));
+		postCursorPageDto.setPageSize(pageSize);
+		postCursorPageDto.setLast(!window.hasNext());
+		if(window.hasNext())
+			postCursorPageDto.setNextCursor(CursorCodec.encode(sortBy, (KeysetScrollPosition) window.positionAt(window.size() - 1)));
+		
+		return postCursorPageDto;
+	}
+	
+	private Sort sort(String sortBy, String sortDir) {
+		if(sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()))
+			return Sort.by(sortBy).ascending();
+		
+		return Sort.by(sortBy).descending();
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public PostPageDto searchPosts(String query, int pageNo, int pageSize) {
+		PostSearchHits hits = postSearchIndex.search(query, pageNo, pageSize);
+		Map<Long, PostView> posts = postRepository.findProjectedByIdIn(hits.ids()).stream()
+				.collect(Collectors.toMap(PostView::getId, Function.identity()));
+		// keep the index ranking, and skip hits deleted since the search ran
+		List<PostView> ranked = hits.ids().stream().map(posts::get).filter(Objects::nonNull).toList();
+		Page<PostView> page = new PageImpl<>(ranked, PageRequest.of(pageNo, pageSize), hits.totalHits());
 		
 		PostPageDto postPageDto = new PostPageDto();
-		postPageDto.setContent(postMapper.convertPosEntitytListToPostDtoList(page.getContent()));
+		postPageDto.setContent(postMapper.convertPostViewListToPostDtoList(page.getContent()));
 		postPageDto.setPageNo(page.getNumber());
 		postPageDto.setPageSize(page.getSize());
 		postPageDto.setTotalElements(page.getTotalElements());
 		postPageDto.setTotalPages(page.getTotalPages());
 		postPageDto.setLast(page.isLast());
-				
+		
 		return postPageDto;
 	}
 	
 	@Override
+	public List<PostSuggestionDto> suggestTitles(String prefix, int limit) {
+		if(limit < 1 || limit > PostConstant.MAX_SUGGEST_LIMIT)
+			throw new BlogApiException("limit must be between 1 and " + PostConstant.MAX_SUGGEST_LIMIT);
+		
+		return titleSuggestIndex.suggest(prefix, limit);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.POST_CACHE, key = "#id", unless = CacheConfig.UNLESS_REPLICA_READ)
 	public PostDto getPostById(long id) {
-		return postRepository.findById(id)
-					  		 .map(postMapper::convertPostEntityToDto)
+		return postRepository.findProjectedById(id)
+					  		 .map(postMapper::convertPostViewToDto)
 					  		 .orElseThrow(() -> new ResourceNotFoundException("PostEntity", "Id", id));
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
+	public String getPostETag(long id) {
+		return postRepository.findVersionById(id)
+							 .map(version -> ETags.of("post", version))
+							 .orElseThrow(() -> new ResourceNotFoundException("PostEntity", "Id", id));
+	}
+	
+	@Override
+	@Transactional
+	@CachePut(cacheNames = CacheConfig.POST_CACHE, key = "#id")
 	public PostDto updatePost(long id, PostDto postDto) {
 		postDto.setId(id);
 		return postRepository.findById(id)
@@ -78,16 +216,37 @@ public class PostServiceImpl implements PostService {
 	}
 
 	private PostDto update(PostEntity entity, PostDto postDto) {
+		if(postDto.getVersion() != null && !postDto.getVersion().equals(entity.getVersion()))
+			throw new ObjectOptimisticLockingFailureException(PostEntity.class, entity.getId());
+		
 		postMapper.updatePostEntity(postDto, entity);
-		PostEntity updatedPost = postRepository.save(entity);
+		// flushed here rather than on commit, so the returned and cached dto carry the new version
+		PostEntity updatedPost = postRepository.saveAndFlush(entity);
+		long id = updatedPost.getId();
+		String title = updatedPost.getTitle();
+		String description = updatedPost.getDescription();
+		String content = updatedPost.getContent();
+		AfterCommit.run(() -> {
+			postsVersion.bump();
+			postSearchIndex.index(id, title, description, content);
+			titleSuggestIndex.put(id, title);
+		});
 		return postMapper.convertPostEntityToDto(updatedPost);
 	}
 	
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.POST_CACHE, key = "#id")
 	public void deletePostById(long id) {
 		PostEntity post = postRepository.findById(id)
 					  .orElseThrow(() -> new ResourceNotFoundException("PostEntity", "Id", id));
 		postRepository.delete(post);
+		AfterCommit.run(() -> {
+			postCountCache.decrement();
+			postsVersion.bump();
+			postSearchIndex.delete(id);
+			titleSuggestIndex.remove(id);
+		});
 	}
 	
 }
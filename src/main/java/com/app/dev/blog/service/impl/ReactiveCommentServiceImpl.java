@@ -0,0 +1,36 @@
+package com.app.dev.blog.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Service;
+
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.mapper.CommentMapper;
+import com.app.dev.blog.repository.ReactiveCommentRepository;
+import com.app.dev.blog.service.ReactiveCommentService;
+
+import reactor.core.publisher.Flux;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveCommentServiceImpl implements ReactiveCommentService {
+	
+	private ReactiveCommentRepository reactiveCommentRepository;
+	
+	private CommentMapper commentMapper;
+
+	public ReactiveCommentServiceImpl(ReactiveCommentRepository reactiveCommentRepository, CommentMapper commentMapper) {
+		super();
+		this.reactiveCommentRepository = reactiveCommentRepository;
+		this.commentMapper = commentMapper;
+	}
+
+	@Override
+	public Flux<CommentDto> getCommentsByPostId(long postId) {
+		// the error can only be raised before the first comment is written, so it still becomes a 404
+		return reactiveCommentRepository.findByPostId(postId)
+										.map(commentMapper::convertCommentEntityToDto)
+										.switchIfEmpty(Flux.error(() -> new ResourceNotFoundException("Post", "id", postId)));
+	}
+}
@@ -0,0 +1,91 @@
+package com.app.dev.blog.service.impl;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.mapper.PostMapper;
+import com.app.dev.blog.repository.ReactivePostRepository;
+import com.app.dev.blog.service.ReactivePostService;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactivePostServiceImpl implements ReactivePostService {
+	
+	private ReactivePostRepository reactivePostRepository;
+	
+	private PostMapper postMapper;
+	
+	private PostCountCache postCountCache;
+
+	public ReactivePostServiceImpl(ReactivePostRepository reactivePostRepository, PostMapper postMapper,
+			PostCountCache postCountCache) {
+		super();
+		this.reactivePostRepository = reactivePostRepository;
+		this.postMapper = postMapper;
+		this.postCountCache = postCountCache;
+	}
+
+	@Override
+	public Mono<PostPageDto> getAllPosts(int pageNo, int pageSize, String sortBy, String sortDir) {
+		Pageable pageable = PageRequest.of(pageNo, pageSize, this.sort(sortBy, sortDir));
+		// one row past the page tells whether another page follows
+		return reactivePostRepository.findAll(pageable.getSort(), pageSize + 1, pageable.getOffset())
+				.map(postMapper::convertPostEntityToDto)
+				.collectList()
+				.flatMap(posts -> this.toPage(posts, pageable));
+	}
+	
+	private Mono<PostPageDto> toPage(List<PostDto> posts, Pageable pageable) {
+		boolean hasNext = posts.size() > pageable.getPageSize();
+		List<PostDto> content = hasNext ? posts.subList(0, pageable.getPageSize()) : posts;
+		long seen = pageable.getOffset() + posts.size();
+		// same rule as the servlet listing: the cached count only fills in what the rows can't tell,
+		// and a cold cache counts over JDBC, so that happens off the event loop
+		Mono<Long> total = hasNext
+				? Mono.fromCallable(postCountCache::get)
+					  .subscribeOn(Schedulers.boundedElastic())
+					  .map(count -> Math.max(count, seen))
+				: Mono.just(seen);
+		
+		return total.map(totalElements -> {
+			Page<PostDto> page = new PageImpl<>(content, pageable, totalElements);
+			PostPageDto postPageDto = new PostPageDto();
+			postPageDto.setContent(page.getContent());
+			postPageDto.setPageNo(page.getNumber());
+			postPageDto.setPageSize(page.getSize());
+			postPageDto.setTotalElements(page.getTotalElements());
+			postPageDto.setTotalPages(page.getTotalPages());
+			postPageDto.setLast(!hasNext);
+			return postPageDto;
+		});
+	}
+	
+	private Sort sort(String sortBy, String sortDir) {
+		if(sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()))
+			return Sort.by(sortBy).ascending();
+		
+		return Sort.by(sortBy).descending();
+	}
+
+	@Override
+	public Mono<PostDto> getPostById(long id) {
+		return reactivePostRepository.findById(id)
+									 .map(postMapper::convertPostEntityToDto)
+									 .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("PostEntity", "Id", id)));
+	}
+}
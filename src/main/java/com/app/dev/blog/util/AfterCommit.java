@@ -0,0 +1,34 @@
+package com.app.dev.blog.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write, such as bumping
+ * {@link com.app.dev.blog.cache.PostsVersion} or updating the search indexes,
+ * until the surrounding transaction commits, so a rollback leaves them
+ * untouched and readers never see them ahead of the data.
+ */
+public class AfterCommit {
+	
+	private AfterCommit() {
+		throw new IllegalStateException("Utility class");
+	}
+	
+	/**
+	 * Runs {@code action} once the current transaction commits, or right away
+	 * when there is none.
+	 */
+	public static void run(Runnable action) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,10 @@
+package com.app.dev.blog.util;
+
+public class CommentConstant {
+	public static final int MAX_BATCH_SIZE = 1000;
+	public static final int MAX_PAGE_SIZE = 100;
+	
+	private CommentConstant() {
+		throw new IllegalStateException("Utility class");
+	}
+}
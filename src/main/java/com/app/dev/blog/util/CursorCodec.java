@@ -0,0 +1,65 @@
+package com.app.dev.blog.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import com.app.dev.blog.exception.BlogApiException;
+
+/**
+ * Encodes keyset positions as opaque, URL safe cursors of the form
+ * {@code sortBy:id:<type><value>} so clients never see the raw seek values.
+ */
+public class CursorCodec {
+	
+	private static final String ID = "id";
+	
+	private static final String SEPARATOR = ":";
+	
+	private static final char NUMBER = 'n';
+	
+	private static final char STRING = 's';
+	
+	private CursorCodec() {
+		throw new IllegalStateException("Utility class");
+	}
+	
+	public static String encode(String sortBy, KeysetScrollPosition position) {
+		Map<String, Object> keys = position.getKeys();
+		Object value = keys.get(sortBy);
+		String raw = sortBy + SEPARATOR + keys.get(ID) + SEPARATOR 
+				+ (value instanceof Number ? NUMBER : STRING) + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static KeysetScrollPosition decode(String cursor, String sortBy) {
+		if(cursor == null || cursor.isBlank())
+			return ScrollPosition.keyset();
+		
+		String[] parts;
+		try {
+			parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+		} catch (IllegalArgumentException e) {
+			throw new BlogApiException("Invalid cursor");
+		}
+		
+		if(parts.length != 3 || parts[2].isEmpty())
+			throw new BlogApiException("Invalid cursor");
+		if(!parts[0].equals(sortBy))
+			throw new BlogApiException("Cursor was issued for sortBy '" + parts[0] + "'");
+		
+		try {
+			Map<String, Object> keys = new LinkedHashMap<>();
+			if(!ID.equals(sortBy))
+				keys.put(sortBy, parts[2].charAt(0) == NUMBER ? Long.valueOf(parts[2].substring(1)) : parts[2].substring(1));
+			keys.put(ID, Long.valueOf(parts[1]));
+			return ScrollPosition.forward(keys);
+		} catch (NumberFormatException e) {
+			throw new BlogApiException("Invalid cursor");
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.app.dev.blog.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.util.DigestUtils;
+
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.projection.PostVersionView;
+import com.app.dev.blog.projection.VersionView;
+
+/**
+ * Builds strong entity tags from row versions. A single row is tagged with its
+ * id and version, a collection with a digest over the (id, version) pairs it
+ * is made of plus whatever else shapes the response. Cached representations
+ * are tagged from the versions they carry, so a cache hit needs no query and
+ * the tag always describes the body it is sent with.
+ */
+public class ETags {
+	
+	private ETags() {
+		throw new IllegalStateException("Utility class");
+	}
+	
+	public static String of(String resource, long id, long version) {
+		return resource + "-" + id + "-v" + version;
+	}
+	
+	/**
+	 * Reads the version back out of a quoted single row tag, e.g. an If-Match
+	 * header. Returns null when the tag was not issued for this row.
+	 */
+	public static Long versionOf(String resource, long id, String eTag) {
+		Matcher matcher = Pattern.compile("\"" + Pattern.quote(resource + "-" + id + "-v") + "(\\d{1,18})(-c\\d+)?\"")
+								 .matcher(eTag.trim());
+		return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+	}
+	
+	/**
+	 * Whether an If-None-Match header lists {@code eTag}, compared weakly as
+	 * required for GET.
+	 */
+	public static boolean matchesAny(List<String> ifNoneMatch, String eTag) {
+		String quoted = "\"" + eTag + "\"";
+		return ifNoneMatch.stream()
+						  .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+						  .anyMatch(tag -> tag.equals("*") || tag.equals(quoted));
+	}
+	
+	/**
+	 * The comment count is part of a post but moves without touching its
+	 * version, so it is tagged alongside it.
+	 */
+	public static String of(String resource, PostDto postDto) {
+		return of(resource, postDto.getId(), postDto.getVersion(), postDto.getCommentCount());
+	}
+	
+	public static String of(String resource, PostVersionView version) {
+		return of(resource, version.getId(), version.getVersion(), version.getCommentCount());
+	}
+	
+	private static String of(String resource, long id, long version, Long commentCount) {
+		return of(resource, id, version) + "-c" + commentCount;
+	}
+	
+	public static String of(String resource, List<? extends VersionView> versions, Object... shape) {
+		StringBuilder builder = shape(resource, shape);
+		for(VersionView version : versions)
+			builder.append('|').append(version.getId()).append(':').append(version.getVersion());
+		
+		return digest(resource, builder);
+	}
+	
+	public static String of(String resource, PostPageDto page, Object... shape) {
+		StringBuilder builder = shape(resource, shape)
+				.append('|').append(page.getPageNo()).append('|').append(page.getPageSize())
+				.append('|').append(page.getTotalElements()).append('|').append(page.isLast());
+		for(PostDto post : page.getContent())
+			builder.append('|').append(post.getId()).append(':').append(post.getVersion()).append(':').append(post.getCommentCount());
+		
+		return digest(resource, builder);
+	}
+	
+	private static StringBuilder shape(String resource, Object... shape) {
+		StringBuilder builder = new StringBuilder(resource);
+		for(Object part : shape)
+			builder.append('|').append(part);
+		return builder;
+	}
+	
+	private static String digest(String resource, StringBuilder builder) {
+		return resource + "-" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
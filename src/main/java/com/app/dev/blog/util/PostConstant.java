@@ -1,10 +1,22 @@
 package com.app.dev.blog.util;
 
+import java.util.Set;
+
 public class PostConstant {
 	public static final String DEFAULT_PAGE_NO = "0";
 	public static final String DEFAULT_PAGE_SIZE = "10";
 	public static final String DEFAULT_SORT_BY = "id";
 	public static final String DEFAULT_SORT_DIR = "asc";
+	public static final int IMPORT_CHUNK_SIZE = 500;
+	// failed still counts every rejected line, only the details stop here
+	public static final int MAX_IMPORT_FAILURES = 1000;
+	public static final String DEFAULT_SUGGEST_LIMIT = "10";
+	public static final int MAX_SUGGEST_LIMIT = 25;
+	// export fetch size for databases other than MySQL, which streams row by row instead
+	public static final int EXPORT_FETCH_SIZE = 500;
+	public static final int MAX_PAGE_SIZE = 100;
+	// cursors carry the sort value, so long text columns are left out
+	public static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("id", "title", "description");
 	
 	private PostConstant() {
 		throw new IllegalStateException("Utility class");
@@ -0,0 +1,24 @@
+package com.app.dev.blog.wal;
+
+/**
+ * When {@link WriteAheadLog} forces appended records to disk.
+ */
+public enum FsyncPolicy {
+	
+	/** Every append is forced before it returns; one fsync per write. */
+	ALWAYS,
+	
+	/**
+	 * Appends return immediately and {@link WriteAheadLog#awaitDurable} blocks
+	 * until a flush covers the record. Whoever waits first flushes for everyone
+	 * that appended in the meantime, so under load one fsync acknowledges many
+	 * writes.
+	 */
+	GROUP,
+	
+	/**
+	 * A background thread flushes on a fixed interval and nobody waits; a
+	 * crash loses at most one interval of acknowledged writes.
+	 */
+	INTERVAL
+}
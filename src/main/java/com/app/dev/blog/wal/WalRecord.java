@@ -0,0 +1,7 @@
+package com.app.dev.blog.wal;
+
+/**
+ * One entry read back from a {@link WriteAheadLog}.
+ */
+public record WalRecord(long sequence, byte[] payload) {
+}
@@ -0,0 +1,455 @@
+package com.app.dev.blog.wal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of opaque records in fixed-size, memory-mapped segment
+ * files. Each record is laid out as
+ * 
+ * <pre>
+ * int length | int crc32c(sequence, payload) | long sequence | payload
+ * </pre>
+ * 
+ * and sequences are contiguous across segments; a segment file is named after
+ * the first sequence it holds. A record that does not fit the rest of the
+ * segment starts the next one, so a zero length marks the end of the data.
+ *
+ * <p>{@link #open()} returns every record above the last
+ * {@link #checkpoint(long) checkpoint}. A record torn by a crash, detected by
+ * its length, checksum or sequence, ends the log: it and anything behind it
+ * in the last segment are zeroed before appending resumes. The same damage in
+ * an older, already forced segment is reported as corruption instead.
+ *
+ * <p>Durability follows the {@link FsyncPolicy}. Appends hold a lock only
+ * while they write to the mapped segment; forcing it to disk and writing the
+ * checkpoint happen outside that lock, so neither stalls the next append. The
+ * locks are {@link ReentrantLock}s rather than monitors, which would pin a
+ * virtual thread to its carrier for as long as they are held.
+ */
+public class WriteAheadLog implements AutoCloseable {
+	
+	private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+	
+	static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+	
+	private static final String SEGMENT_SUFFIX = ".wal";
+	
+	private static final String CHECKPOINT_FILE = "checkpoint";
+	
+	private final Path directory;
+	
+	private final int segmentSize;
+	
+	private final FsyncPolicy fsyncPolicy;
+	
+	private final Duration fsyncInterval;
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	private final Deque<Segment> segments = new ArrayDeque<>();
+	
+	private long lastSequence;
+	
+	private long checkpointed;
+	
+	private final ReentrantLock checkpointLock = new ReentrantLock();
+	
+	private final ReentrantLock flushLock = new ReentrantLock();
+	
+	private final Condition flushed = flushLock.newCondition();
+	
+	private long durableSequence;
+	
+	private boolean flushing;
+	
+	private ScheduledExecutorService flusher;
+	
+	private record Segment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+		
+		void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	public WriteAheadLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+		if(segmentSize <= HEADER_SIZE)
+			throw new IllegalArgumentException("segmentSize must be larger than " + HEADER_SIZE + " bytes");
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.fsyncPolicy = fsyncPolicy;
+		this.fsyncInterval = fsyncInterval;
+	}
+	
+	/**
+	 * Recovers the log and opens it for appending.
+	 * 
+	 * @return the records above the last checkpoint, in sequence order
+	 */
+	public List<WalRecord> open() throws IOException {
+		lock.lock();
+		try {
+			return this.recoverSegments();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	private List<WalRecord> recoverSegments() throws IOException {
+		Files.createDirectories(directory);
+		checkpointed = this.readCheckpoint();
+		
+		List<Path> paths;
+		try(Stream<Path> files = Files.list(directory)) {
+			paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+						 .sorted()
+						 .toList();
+		}
+		
+		List<WalRecord> records = new ArrayList<>();
+		long expected = paths.isEmpty() ? checkpointed + 1 : firstSequence(paths.get(0));
+		for(int index = 0; index < paths.size(); index++) {
+			Segment segment = this.map(paths.get(index), firstSequence(paths.get(index)));
+			segments.addLast(segment);
+			if(segment.firstSequence() != expected)
+				throw new IllegalStateException("Write-ahead log is missing records " + expected + " to " 
+												+ (segment.firstSequence() - 1) + " before " + segment.path());
+			
+			expected = this.recover(segment, index == paths.size() - 1, records);
+		}
+		
+		lastSequence = expected - 1;
+		durableSequence = lastSequence;
+		if(segments.isEmpty())
+			segments.addLast(this.create(lastSequence + 1));
+		
+		if(fsyncPolicy == FsyncPolicy.INTERVAL) {
+			flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "wal-flusher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long interval = fsyncInterval.toNanos();
+			flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+		}
+		
+		records.removeIf(record -> record.sequence() <= checkpointed);
+		return records;
+	}
+	
+	/**
+	 * Reads the records of one segment and leaves its buffer positioned after
+	 * the last good one.
+	 * 
+	 * @return the sequence the next record must have
+	 */
+	private long recover(Segment segment, boolean last, List<WalRecord> records) {
+		MappedByteBuffer buffer = segment.buffer();
+		long expected = segment.firstSequence();
+		CRC32C crc = new CRC32C();
+		while(buffer.remaining() >= HEADER_SIZE) {
+			int start = buffer.position();
+			int length = buffer.getInt();
+			if(length == 0) {
+				buffer.position(start);
+				return expected;
+			}
+			
+			int checksum = buffer.getInt();
+			long sequence = buffer.getLong();
+			if(length < 0 || length > buffer.remaining() || sequence != expected) {
+				this.truncate(segment, start, last);
+				return expected;
+			}
+			byte[] payload = new byte[length];
+			buffer.get(payload);
+			if(checksum(crc, sequence, payload) != checksum) {
+				this.truncate(segment, start, last);
+				return expected;
+			}
+			
+			records.add(new WalRecord(sequence, payload));
+			expected++;
+		}
+		return expected;
+	}
+	
+	private void truncate(Segment segment, int position, boolean last) {
+		if(!last)
+			throw new IllegalStateException("Write-ahead log segment " + segment.path() + " is corrupt at byte " + position);
+		
+		log.warn("Discarding a torn record at byte {} of {}", position, segment.path());
+		MappedByteBuffer buffer = segment.buffer();
+		buffer.put(position, new byte[buffer.capacity() - position]);
+		buffer.force();
+		buffer.position(position);
+	}
+	
+	/**
+	 * Appends a record. Under {@link FsyncPolicy#ALWAYS} it is on disk when
+	 * this returns; otherwise call {@link #awaitDurable(long)} before
+	 * acknowledging it.
+	 * 
+	 * @return the record's sequence
+	 */
+	public long append(byte[] payload) {
+		int size = HEADER_SIZE + payload.length;
+		if(size > segmentSize)
+			throw new IllegalArgumentException("A record of " + payload.length + " bytes does not fit a segment of " 
+											   + segmentSize + " bytes");
+		
+		Segment segment;
+		long sequence;
+		lock.lock();
+		try {
+			segment = segments.getLast();
+			if(segment.buffer().remaining() < size)
+				segment = this.rotate();
+			
+			sequence = lastSequence + 1;
+			segment.buffer()
+				   .putInt(payload.length)
+				   .putInt(checksum(new CRC32C(), sequence, payload))
+				   .putLong(sequence)
+				   .put(payload);
+			lastSequence = sequence;
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not append to the write-ahead log", exception);
+		} finally {
+			lock.unlock();
+		}
+		
+		if(fsyncPolicy == FsyncPolicy.ALWAYS) {
+			// may also force records appended since, which is harmless
+			segment.buffer().force();
+			this.markDurable(sequence);
+		}
+		return sequence;
+	}
+	
+	/**
+	 * Older segments are forced here, so a flush only ever needs the current one.
+	 */
+	private Segment rotate() throws IOException {
+		segments.getLast().buffer().force();
+		Segment segment = this.create(lastSequence + 1);
+		segments.addLast(segment);
+		return segment;
+	}
+	
+	/**
+	 * Blocks until {@code sequence} is on disk. Under {@link FsyncPolicy#GROUP}
+	 * the first caller to find no flush running forces the log on behalf of
+	 * every record appended so far, while later callers wait for it; the other
+	 * policies return at once.
+	 */
+	public void awaitDurable(long sequence) {
+		if(fsyncPolicy != FsyncPolicy.GROUP)
+			return;
+		
+		flushLock.lock();
+		try {
+			while(durableSequence < sequence && flushing) {
+				try {
+					flushed.await();
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while waiting for the write-ahead log", exception);
+				}
+			}
+			if(durableSequence >= sequence)
+				return;
+			flushing = true;
+		} finally {
+			flushLock.unlock();
+		}
+		
+		this.flush();
+	}
+	
+	private void flush() {
+		long target = 0;
+		boolean forced = false;
+		try {
+			MappedByteBuffer buffer;
+			lock.lock();
+			try {
+				buffer = segments.getLast().buffer();
+				target = lastSequence;
+			} finally {
+				lock.unlock();
+			}
+			buffer.force();
+			forced = true;
+		} finally {
+			flushLock.lock();
+			try {
+				if(forced)
+					durableSequence = Math.max(durableSequence, target);
+				flushing = false;
+				flushed.signalAll();
+			} finally {
+				flushLock.unlock();
+			}
+		}
+	}
+	
+	private void markDurable(long sequence) {
+		flushLock.lock();
+		try {
+			durableSequence = Math.max(durableSequence, sequence);
+		} finally {
+			flushLock.unlock();
+		}
+	}
+	
+	private void flushQuietly() {
+		flushLock.lock();
+		try {
+			if(flushing)
+				return;
+			flushing = true;
+		} finally {
+			flushLock.unlock();
+		}
+		try {
+			this.flush();
+		} catch (RuntimeException exception) {
+			log.warn("Periodic write-ahead log flush failed", exception);
+		}
+	}
+	
+	public long durableSequence() {
+		flushLock.lock();
+		try {
+			return durableSequence;
+		} finally {
+			flushLock.unlock();
+		}
+	}
+	
+	/**
+	 * Marks every record up to {@code sequence} as applied. They are not
+	 * replayed again, and segments holding nothing newer are deleted. Only
+	 * taking the applied segments off the list holds the append lock.
+	 */
+	public void checkpoint(long sequence) {
+		checkpointLock.lock();
+		try {
+			Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+			try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+													   StandardOpenOption.TRUNCATE_EXISTING)) {
+				channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII)));
+				channel.force(true);
+			}
+			Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, 
+					   StandardCopyOption.REPLACE_EXISTING);
+			
+			// appends only touch the last segment, which is never applied
+			List<Segment> applied = new ArrayList<>();
+			lock.lock();
+			try {
+				checkpointed = sequence;
+				while(segments.size() > 1 && this.nextFirstSequence() <= sequence + 1)
+					applied.add(segments.removeFirst());
+			} finally {
+				lock.unlock();
+			}
+			for(Segment segment : applied) {
+				segment.close();
+				Files.delete(segment.path());
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not checkpoint the write-ahead log at " + sequence, exception);
+		} finally {
+			checkpointLock.unlock();
+		}
+	}
+	
+	private long nextFirstSequence() {
+		return segments.stream().skip(1).findFirst().orElseThrow().firstSequence();
+	}
+	
+	int segmentCount() {
+		lock.lock();
+		try {
+			return segments.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	private long readCheckpoint() throws IOException {
+		Path path = directory.resolve(CHECKPOINT_FILE);
+		if(!Files.exists(path))
+			return 0;
+		return Long.parseLong(Files.readString(path, StandardCharsets.US_ASCII).trim());
+	}
+	
+	private Segment create(long firstSequence) throws IOException {
+		return this.map(directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX)), firstSequence);
+	}
+	
+	/**
+	 * Maps a segment, growing a new or short file to the full segment size;
+	 * the file system fills the extension with zeros.
+	 */
+	private Segment map(Path path, long firstSequence) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, 
+											   StandardOpenOption.WRITE);
+		int size = (int) Math.max(channel.size(), segmentSize);
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		return new Segment(path, firstSequence, channel, buffer);
+	}
+	
+	private static long firstSequence(Path path) {
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+	}
+	
+	private static int checksum(CRC32C crc, long sequence, byte[] payload) {
+		crc.reset();
+		crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(flusher != null)
+			flusher.shutdownNow();
+		lock.lock();
+		try {
+			if(!segments.isEmpty())
+				segments.getLast().buffer().force();
+			for(Segment segment : segments)
+				segment.close();
+			segments.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package com.app.dev.blog.writebehind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionSystemException;
+
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.QueuedCommentDto;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.exception.WriteQueueClosedException;
+import com.app.dev.blog.exception.WriteQueueFullException;
+import com.app.dev.blog.service.CommentService;
+import com.app.dev.blog.wal.FsyncPolicy;
+import com.app.dev.blog.wal.WalRecord;
+import com.app.dev.blog.wal.WriteAheadLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Write-behind path for single comments, enabled with
+ * {@code blog.comments.write-behind.enabled=true}. A validated comment is
+ * logged, put on a bounded queue and acknowledged with a provisional id;
+ * one writer thread drains the queue and inserts up to
+ * {@code batch-size} comments per post in a single transaction through
+ * {@link CommentService#createComments}, instead of one transaction per
+ * request.
+ *
+ * <p>Every comment is appended to a {@link WriteAheadLog} and is durable
+ * under its {@link FsyncPolicy} before the 202 goes out; the writer
+ * checkpoints the log after each batch and replays what is above the
+ * checkpoint on start. Delivery is at least once: a crash between a database
+ * commit and its checkpoint writes that batch again. A full queue rejects new
+ * comments rather than growing. Lock timeouts, deadlocks and lost connections
+ * are retried with backoff; a comment that fails any other way, for a post
+ * that no longer exists or against a database constraint, is logged, dropped
+ * and counted, and one that fails validation is counted as invalid.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.comments.write-behind.enabled", havingValue = "true")
+public class CommentWriteBehindQueue implements SmartLifecycle {
+	
+	private static final Logger log = LoggerFactory.getLogger(CommentWriteBehindQueue.class);
+	
+	private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+	
+	private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+	
+	/**
+	 * Below the web server's start and stop phase, so the log is open before
+	 * the first request arrives and the queue drains only after the last one.
+	 */
+	static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+	
+	private final CommentService commentService;
+	
+	private final ObjectMapper objectMapper;
+	
+	private final WriteAheadLog writeAheadLog;
+	
+	private final BlockingQueue<Pending> queue;
+	
+	private final int capacity;
+	
+	private final int batchSize;
+	
+	private final Duration shutdownTimeout;
+	
+	private final Counter accepted;
+	
+	private final Counter rejected;
+	
+	private final Counter written;
+	
+	private final Counter dropped;
+	
+	private final Counter invalid;
+	
+	private final ReentrantLock enqueueLock = new ReentrantLock();
+	
+	private volatile boolean running;
+	
+	private Thread writer;
+	
+	private record Pending(long sequence, QueuedComment comment) {
+	}
+
+	public CommentWriteBehindQueue(CommentService commentService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			WriteAheadLog writeAheadLog,
+			@Value("${blog.comments.write-behind.capacity:10000}") int capacity,
+			@Value("${blog.comments.write-behind.batch-size:200}") int batchSize,
+			@Value("${blog.comments.write-behind.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+		super();
+		this.commentService = commentService;
+		this.objectMapper = objectMapper;
+		this.writeAheadLog = writeAheadLog;
+		this.queue = new LinkedBlockingQueue<>(capacity);
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.shutdownTimeout = shutdownTimeout;
+		Gauge.builder("blog.comments.write_behind.depth", queue, BlockingQueue::size)
+			 .description("Comments accepted but not yet written")
+			 .register(meterRegistry);
+		this.accepted = meterRegistry.counter("blog.comments.write_behind", "result", "accepted");
+		this.rejected = meterRegistry.counter("blog.comments.write_behind", "result", "rejected");
+		this.written = meterRegistry.counter("blog.comments.write_behind", "result", "written");
+		this.dropped = meterRegistry.counter("blog.comments.write_behind", "result", "dropped");
+		this.invalid = meterRegistry.counter("blog.comments.write_behind", "result", "invalid");
+	}
+	
+	/**
+	 * Logs and queues a comment that already passed bean validation, and
+	 * returns once the log entry is durable.
+	 * 
+	 * @throws WriteQueueFullException when {@code capacity} comments are pending
+	 * @throws WriteQueueClosedException before {@link #start()} or after {@link #stop()}
+	 */
+	public QueuedCommentDto enqueue(long postId, CommentDto commentDto) {
+		QueuedComment comment = new QueuedComment(UUID.randomUUID().toString(), postId, commentDto);
+		byte[] payload = this.serialize(comment);
+		
+		long sequence;
+		// log order and queue order must match, the writer checkpoints by sequence
+		enqueueLock.lock();
+		try {
+			if(!running) {
+				rejected.increment();
+				throw new WriteQueueClosedException();
+			}
+			if(queue.remainingCapacity() == 0) {
+				rejected.increment();
+				throw new WriteQueueFullException(capacity);
+			}
+			sequence = writeAheadLog.append(payload);
+			queue.add(new Pending(sequence, comment));
+		} finally {
+			enqueueLock.unlock();
+		}
+		// outside the lock, so concurrent comments share one flush
+		writeAheadLog.awaitDurable(sequence);
+		
+		accepted.increment();
+		return new QueuedCommentDto(comment.provisionalId(), postId);
+	}
+	
+	private byte[] serialize(QueuedComment comment) {
+		try {
+			return objectMapper.writeValueAsBytes(comment);
+		} catch (JsonProcessingException exception) {
+			throw new IllegalArgumentException("Could not serialize a queued comment", exception);
+		}
+	}
+	
+	private QueuedComment deserialize(WalRecord record) {
+		try {
+			return objectMapper.readValue(record.payload(), QueuedComment.class);
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not read write-ahead log record " + record.sequence(), exception);
+		}
+	}
+	
+	public int depth() {
+		return queue.size();
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	@Override
+	public void start() {
+		List<WalRecord> records;
+		try {
+			records = writeAheadLog.open();
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not open the comment write-ahead log", exception);
+		}
+		if(!records.isEmpty())
+			log.info("Replaying {} logged comments", records.size());
+		
+		List<Pending> replayed = records.stream()
+										.map(record -> new Pending(record.sequence(), this.deserialize(record)))
+										.toList();
+		running = true;
+		writer = new Thread(() -> this.drain(replayed), "comment-write-behind");
+		writer.start();
+	}
+	
+	/**
+	 * Waits up to {@code shutdown-timeout} for the queue to empty; whatever is
+	 * left stays in the log for the next start.
+	 */
+	@Override
+	public void stop() {
+		// nothing can be queued behind the writer's last look at the queue
+		enqueueLock.lock();
+		try {
+			running = false;
+		} finally {
+			enqueueLock.unlock();
+		}
+		try {
+			writer.join(shutdownTimeout.toMillis());
+			if(writer.isAlive()) {
+				log.warn("{} comments still queued at shutdown, they will be replayed from the log", queue.size());
+				writer.interrupt();
+				writer.join();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+	
+	/**
+	 * Writes what the log replayed, in batches and ahead of anything new, then
+	 * drains the queue until stopped.
+	 */
+	private void drain(List<Pending> replayed) {
+		try {
+			for(int from = 0; from < replayed.size(); from += batchSize)
+				this.writeBatch(replayed.subList(from, Math.min(from + batchSize, replayed.size())));
+			
+			List<Pending> batch = new ArrayList<>(batchSize);
+			while(running || !queue.isEmpty()) {
+				Pending first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+				if(first == null)
+					continue;
+				
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				this.writeBatch(batch);
+				batch.clear();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private void writeBatch(List<Pending> batch) throws InterruptedException {
+		this.writeWithRetry(batch);
+		writeAheadLog.checkpoint(batch.get(batch.size() - 1).sequence());
+	}
+	
+	/**
+	 * Writes one transaction per post in the batch. Posts already written are
+	 * taken out before a retry, so a failing post does not duplicate the rest.
+	 * Only transient database errors are retried, anything else would fail the
+	 * same way every time and hold up the whole queue.
+	 */
+	private void writeWithRetry(List<Pending> batch) throws InterruptedException {
+		Map<Long, List<Pending>> byPost = new LinkedHashMap<>();
+		for(Pending pending : batch)
+			byPost.computeIfAbsent(pending.comment().postId(), postId -> new ArrayList<>()).add(pending);
+		
+		long backoff = POLL_INTERVAL.toMillis();
+		while(!byPost.isEmpty()) {
+			Iterator<Map.Entry<Long, List<Pending>>> iterator = byPost.entrySet().iterator();
+			try {
+				while(iterator.hasNext()) {
+					Map.Entry<Long, List<Pending>> entry = iterator.next();
+					this.write(entry.getKey(), entry.getValue());
+					iterator.remove();
+				}
+			} catch (RuntimeException exception) {
+				log.warn("Writing queued comments failed, retrying in {} ms", backoff, exception);
+				TimeUnit.MILLISECONDS.sleep(backoff);
+				backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF.toMillis());
+			}
+		}
+	}
+	
+	/**
+	 * Writes the comments of one post, rethrowing only transient errors. When a
+	 * permanent error fails a transaction of several comments they are written
+	 * one at a time, so only the comment that causes it is dropped; comments
+	 * written that way are taken out of {@code pendings} as they go.
+	 */
+	private void write(long postId, List<Pending> pendings) {
+		try {
+			List<CommentDto> comments = pendings.stream().map(pending -> pending.comment().comment()).toList();
+			this.count(pendings, commentService.createComments(postId, comments));
+		} catch (RuntimeException exception) {
+			if(isTransient(exception))
+				throw exception;
+			if(exception instanceof ResourceNotFoundException || pendings.size() == 1) {
+				this.drop(pendings, exception);
+				return;
+			}
+			for(Iterator<Pending> iterator = pendings.iterator(); iterator.hasNext();) {
+				this.write(postId, List.of(iterator.next()));
+				iterator.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Comments are validated before they are queued, so a failed item here is a
+	 * logged comment that no longer passes the current constraints.
+	 */
+	private void count(List<Pending> pendings, List<BulkItemResultDto> results) {
+		for(BulkItemResultDto result : results) {
+			if(result.getStatus() == BulkItemResultDto.Status.CREATED) {
+				written.increment();
+			} else {
+				invalid.increment();
+				log.warn("Queued comment {} failed validation: {}", 
+						 pendings.get(result.getIndex()).comment().provisionalId(), result.getErrors());
+			}
+		}
+	}
+	
+	private void drop(List<Pending> pendings, RuntimeException exception) {
+		for(Pending pending : pendings)
+			log.error("Dropping queued comment {} for post {}: {}", 
+					  pending.comment().provisionalId(), pending.comment().postId(), exception.getMessage());
+		dropped.increment(pendings.size());
+	}
+	
+	/**
+	 * Lock and query timeouts, deadlocks and a lost connection, either while
+	 * opening the transaction or on commit.
+	 */
+	private static boolean isTransient(RuntimeException exception) {
+		return exception instanceof TransientDataAccessException
+			|| exception instanceof RecoverableDataAccessException
+			|| exception instanceof DataAccessResourceFailureException
+			|| exception instanceof CannotCreateTransactionException
+			|| exception instanceof TransactionSystemException;
+	}
+}
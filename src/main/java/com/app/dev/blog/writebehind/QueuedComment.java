@@ -0,0 +1,11 @@
+package com.app.dev.blog.writebehind;
+
+import com.app.dev.blog.dtos.CommentDto;
+
+/**
+ * A comment accepted by {@link CommentWriteBehindQueue} but not yet written,
+ * as stored in the write-ahead log. {@code provisionalId} is what the client
+ * was given back.
+ */
+public record QueuedComment(String provisionalId, long postId, CommentDto comment) {
+}
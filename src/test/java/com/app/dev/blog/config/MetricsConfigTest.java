@@ -0,0 +1,81 @@
+package com.app.dev.blog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+
+import com.app.dev.blog.controller.PostController;
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.service.PostBulkService;
+import com.app.dev.blog.service.PostService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringJUnitWebConfig
+class MetricsConfigTest {
+	
+	@Configuration
+	@EnableAspectJAutoProxy(proxyTargetClass = true)
+	@Import({MetricsConfig.class, PostController.class})
+	static class TestConfig {
+		
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+	
+	@Autowired
+	private PostController postController;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@MockBean
+	private PostService postService;
+	
+	@MockBean
+	private PostBulkService postBulkService;
+	
+	@Test
+	void givenSuccessfulCall_whenControllerMethodReturns_thenTimerIsTaggedWithoutException() {
+		given(postService.suggestTitles("Spr", 5)).willReturn(List.of(new PostSuggestionDto(1L, "Spring")));
+		
+		postController.suggestTitles("Spr", 5);
+		
+		Timer timer = meterRegistry.get(MetricsConfig.CONTROLLER_TIMER)
+								   .tag("class", PostController.class.getName())
+								   .tag("method", "suggestTitles")
+								   .tag("exception", "none")
+								   .timer();
+		assertThat(timer.count()).isEqualTo(1);
+	}
+	
+	@Test
+	void givenMissingPost_whenControllerMethodThrows_thenTimerIsTaggedWithExceptionType() {
+		willThrow(new ResourceNotFoundException("PostEntity", "Id", 1L)).given(postService).deletePostById(1L);
+		
+		assertThrows(ResourceNotFoundException.class, () -> postController.deletePostById(1L));
+		
+		Timer timer = meterRegistry.get(MetricsConfig.CONTROLLER_TIMER)
+								   .tag("method", "deletePostById")
+								   .tag("exception", ResourceNotFoundException.class.getSimpleName())
+								   .timer();
+		assertThat(timer.count()).isEqualTo(1);
+	}
+}
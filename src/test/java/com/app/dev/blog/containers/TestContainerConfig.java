@@ -19,5 +19,6 @@ public abstract class TestContainerConfig {
 		registry.add("spring.datasource.url", MY_SQL_CONTAINER::getJdbcUrl);
 		registry.add("spring.datasource.username", MY_SQL_CONTAINER::getUsername);
 		registry.add("spring.datasource.password", MY_SQL_CONTAINER::getPassword);
+		registry.add("blog.query-budget.enforce", () -> "true");
 	}
 }
@@ -1,6 +1,10 @@
 package com.app.dev.blog.controller;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -10,6 +14,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.Map;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,11 +23,14 @@ import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentCursorPageDto;
 import com.app.dev.blog.dtos.CommentDto;
 import com.app.dev.blog.dtos.CommentUpdateDto;
 import com.app.dev.blog.service.CommentService;
@@ -67,6 +75,43 @@ class CommentControllerTest {
 					 .andDo(print());
 	}
 
+	@Test
+	void givenPostIdComments_whenCreateComments_thenReturnPerItemResults() throws Exception {
+		long postId = 1;
+		List<BulkItemResultDto> results = List.of(BulkItemResultDto.created(0, 1l), 
+												  BulkItemResultDto.failed(1, Map.of("email", "must be a well-formed email address")));
+		given(commentService.createComments(anyLong(), anyList())).willReturn(results);
+		
+		ResultActions resultActions = mockMvc.perform(post("/api/posts/{postId}/comments/batch", postId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(commentDto, commentDto))));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$[0].status", CoreMatchers.is("CREATED")))
+					 .andExpect(jsonPath("$[0].errors").doesNotExist())
+					 .andExpect(jsonPath("$[1].status", CoreMatchers.is("FAILED")))
+					 .andExpect(jsonPath("$[1].errors.email", CoreMatchers.notNullValue()))
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenPostIdAndLimit_whenGetCommentsByPostId_thenReturnCursorPage() throws Exception {
+		long postId = 1;
+		CommentCursorPageDto page = new CommentCursorPageDto(List.of(commentDto), 1, "next", false);
+		given(commentService.getCommentsAfter(postId, "abc", 1)).willReturn(page);
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/{postId}/comments", postId)
+						.param("limit", "1")
+						.param("after", "abc"));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$.content.size()", CoreMatchers.is(1)))
+					 .andExpect(jsonPath("$.nextCursor", CoreMatchers.is("next")))
+					 .andExpect(jsonPath("$.last", CoreMatchers.is(false)))
+					 .andDo(print());
+		verify(commentService, never()).getCommentsByPostId(anyLong());
+	}
+	
 	@Test
 	void givenPostId_whenGetCommentsByPostId_thenReturnListComment() throws Exception {
 		long postId = 1;
@@ -78,6 +123,7 @@ class CommentControllerTest {
 										  .build();
 		List<CommentDto> comments = List.of(commentDto, commentDto2);
 		
+		given(commentService.getCommentsETag(postId)).willReturn("comments-1");
 		given(commentService.getCommentsByPostId(postId)).willReturn(comments);
 		
 		ResultActions resultActions = mockMvc.perform(get("/api/posts/{postId}/comments", postId)
@@ -88,6 +134,21 @@ class CommentControllerTest {
 					 .andDo(print());
 	}
 	
+	@Test
+	void givenMatchingETag_whenGetCommentsByPostId_thenReturnNotModified() throws Exception {
+		long postId = 1;
+		given(commentService.getCommentsETag(postId)).willReturn("comments-1");
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/{postId}/comments", postId)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"comments-1\"")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		resultActions.andExpect(status().isNotModified())
+					 .andDo(print());
+		
+		verify(commentService, never()).getCommentsByPostId(postId);
+	}
+	
 	@Test
 	void givenPostIdCommentId_whenGetCommentById_thenReturnComment() throws Exception {
 		long postId = 1;
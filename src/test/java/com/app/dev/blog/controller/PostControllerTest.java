@@ -4,17 +4,28 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,13 +33,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import com.app.dev.blog.dtos.BulkImportSummaryDto;
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.PostCursorPageDto;
 import com.app.dev.blog.dtos.PostDto;
 import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.dtos.PostSliceDto;
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.service.PostBulkService;
 import com.app.dev.blog.service.PostService;
+import com.app.dev.blog.util.ETags;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -41,6 +62,9 @@ class PostControllerTest {
 	@MockBean
 	private PostService postService;
 	
+	@MockBean
+	private PostBulkService postBulkService;
+	
 	@Autowired
 	private ObjectMapper objectMapper;
 	
@@ -52,7 +76,9 @@ class PostControllerTest {
 						 .id(1l)
 						 .title("test title")
 						 .description("test description")
-						 .content("test content").build();
+						 .content("test content")
+						 .version(0L)
+						 .commentCount(0L).build();
 	}
 	
 	@Test
@@ -67,6 +93,66 @@ class PostControllerTest {
 					 	 .andDo(print());
 	}
 	
+	@Test
+	void givenNdjsonBody_whenImportPosts_thenReturnImportSummary() throws Exception {
+		BulkImportSummaryDto summary = new BulkImportSummaryDto(2, 1, 1, 
+				List.of(BulkItemResultDto.failed(2, Map.of("title", "Post title already exists"))));
+		given(postBulkService.importPosts(any(InputStream.class))).willReturn(summary);
+		
+		String body = objectMapper.writeValueAsString(postDto) + "\n" + objectMapper.writeValueAsString(postDto) + "\n";
+		ResultActions resultActions = mockMvc.perform(post("/api/posts/bulk")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content(body));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$.total", CoreMatchers.is(2)))
+					 .andExpect(jsonPath("$.created", CoreMatchers.is(1)))
+					 .andExpect(jsonPath("$.failures[0].index", CoreMatchers.is(2)))
+					 .andExpect(jsonPath("$.failures[0].errors.title", CoreMatchers.notNullValue()))
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenWithComments_whenExportPosts_thenStreamNdjson() throws Exception {
+		willAnswer(invocation -> {
+			invocation.<OutputStream>getArgument(1).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).given(postBulkService).exportPosts(eq(true), any(OutputStream.class));
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/export").param("withComments", "true"));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+					 .andExpect(content().string("{\"id\":1}\n"))
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenQuery_whenSearchPosts_thenReturnRankedPostPageDto() throws Exception {
+		PostPageDto postPageDto = new PostPageDto(List.of(postDto), 0, 10, 1, 1, true);
+		given(postService.searchPosts("test", 0, 10)).willReturn(postPageDto);
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/search").param("q", "test"));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$.content[0].title", CoreMatchers.is(postDto.getTitle())))
+					 .andExpect(jsonPath("$.totalElements", CoreMatchers.is(1)))
+					 .andDo(print());
+		verify(postService, never()).getPostById(anyLong());
+	}
+	
+	@Test
+	void givenPrefix_whenSuggestTitles_thenReturnSuggestions() throws Exception {
+		given(postService.suggestTitles("te", 10)).willReturn(List.of(new PostSuggestionDto(1l, "test title")));
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/suggest").param("prefix", "te"));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$[0].id", CoreMatchers.is(1)))
+					 .andExpect(jsonPath("$[0].title", CoreMatchers.is("test title")))
+					 .andDo(print());
+	}
+	
 	@Test
 	void givenListPost_whenGetAllPosts_thenReturnPaginatedPostPageDto() throws Exception {
 		int pageNo = 0;
@@ -90,6 +176,35 @@ class PostControllerTest {
 					 .andDo(print());
 	}
 	
+	@Test
+	void givenWithTotalFalse_whenGetAllPosts_thenReturnPostSliceDto() throws Exception {
+		PostSliceDto postSliceDto = new PostSliceDto(List.of(postDto), 0, 10, true);
+		given(postService.getPostSlice(0, 10, "id", "asc")).willReturn(postSliceDto);
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts")
+				.param("withTotal", "false"));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$.content.size()", CoreMatchers.is(1)))
+					 .andExpect(jsonPath("$.totalElements").doesNotExist())
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenCursor_whenGetAllPosts_thenReturnPostCursorPageDto() throws Exception {
+		PostCursorPageDto postCursorPageDto = new PostCursorPageDto(List.of(postDto), 1, "bmV4dA", false);
+		given(postService.getPostsAfter("Y3Vyc29y", 1, "id", "asc")).willReturn(postCursorPageDto);
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts")
+				.param("after", "Y3Vyc29y")
+				.param("pageSize", "1"));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(jsonPath("$.content.size()", CoreMatchers.is(1)))
+					 .andExpect(jsonPath("$.nextCursor", CoreMatchers.is("bmV4dA")))
+					 .andDo(print());
+	}
+	
 	@Test
 	void givenValid_whenGetPostById_thenReturnPostDto() throws Exception {
 		given(postService.getPostById(anyLong())).willReturn(postDto);
@@ -97,9 +212,74 @@ class PostControllerTest {
 		ResultActions resultActions = mockMvc.perform(get("/api/posts/{id}", postDto.getId()));
 		
 		resultActions.andExpect(status().isOk())
+					 .andExpect(header().string(HttpHeaders.ETAG, "\"post-1-v0-c0\""))
 					 .andDo(print());		
 	}
 	
+	@Test
+	void givenMatchingETag_whenGetPostById_thenReturnNotModifiedWithoutLoadingPost() throws Exception {
+		given(postService.getPostETag(1L)).willReturn("post-1-v0-c0");
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/{id}", postDto.getId())
+				.header(HttpHeaders.IF_NONE_MATCH, "\"post-1-v0-c0\""));
+		
+		resultActions.andExpect(status().isNotModified())
+					 .andExpect(header().string(HttpHeaders.ETAG, "\"post-1-v0-c0\""))
+					 .andExpect(content().string(""))
+					 .andDo(print());
+		verify(postService, never()).getPostById(anyLong());
+	}
+	
+	@Test
+	void givenStaleETag_whenGetPostById_thenReturnPostDtoWithCurrentETag() throws Exception {
+		given(postService.getPostETag(1L)).willReturn("post-1-v0-c0");
+		given(postService.getPostById(anyLong())).willReturn(postDto);
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts/{id}", postDto.getId())
+				.header(HttpHeaders.IF_NONE_MATCH, "\"post-1-v-1-c0\""));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(header().stringValues(HttpHeaders.ETAG, "\"post-1-v0-c0\""))
+					 .andExpect(jsonPath("$.title", CoreMatchers.is(postDto.getTitle())))
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenMatchingETag_whenGetAllPosts_thenReturnNotModified() throws Exception {
+		PostPageDto postPageDto = new PostPageDto(List.of(postDto), 0, 10, 1, 1, true);
+		given(postService.getAllPosts(anyInt(), anyInt(), anyString(), anyString())).willReturn(postPageDto);
+		String eTag = ETags.of("posts", postPageDto, "id", "asc");
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + eTag + "\""));
+		
+		resultActions.andExpect(status().isNotModified())
+					 .andExpect(content().string(""))
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenNewerCachedPage_whenGetAllPosts_thenReturnPageWithFreshETag() throws Exception {
+		PostPageDto stalePage = new PostPageDto(List.of(postDto), 0, 10, 1, 1, true);
+		String staleETag = ETags.of("posts", stalePage, "id", "asc");
+		PostDto updatedPostDto = PostDto.builder()
+										.id(1l)
+										.title("test title updated")
+										.description("test description")
+										.content("test content")
+										.version(1L).build();
+		PostPageDto postPageDto = new PostPageDto(List.of(updatedPostDto), 0, 10, 1, 1, true);
+		given(postService.getAllPosts(anyInt(), anyInt(), anyString(), anyString())).willReturn(postPageDto);
+		
+		ResultActions resultActions = mockMvc.perform(get("/api/posts")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + staleETag + "\""));
+		
+		resultActions.andExpect(status().isOk())
+					 .andExpect(header().string(HttpHeaders.ETAG, "\"" + ETags.of("posts", postPageDto, "id", "asc") + "\""))
+					 .andExpect(jsonPath("$.content[0].version", CoreMatchers.is(1)))
+					 .andDo(print());
+	}
+	
 	@Test
 	void givenValidIdPostDto_whenUpdatePost_thenReturnUpdatedPost() throws JsonProcessingException, Exception {
 		PostDto updatedPostDto = PostDto.builder()
@@ -107,6 +287,8 @@ class PostControllerTest {
 				 						 .title("test title updated")
 				 						 .description("test description updated")
 				 						 .content("test content updated")
+				 						 .version(1L)
+				 						 .commentCount(2L)
 				 						 .build();
 		given(postService.updatePost(anyLong(), any(PostDto.class))).willReturn(updatedPostDto);
 		
@@ -115,10 +297,72 @@ class PostControllerTest {
 				.content(objectMapper.writeValueAsString(updatedPostDto)));
 		
 		resultActions.andExpect(status().isOk())
+					 .andExpect(header().string(HttpHeaders.ETAG, "\"post-1-v1-c2\""))
 					 .andExpect(jsonPath("$.title", CoreMatchers.is(updatedPostDto.getTitle())))
 					 .andDo(print());
 	}
 	
+	@Test
+	void givenIfMatch_whenUpdatePost_thenExpectTaggedVersion() throws Exception {
+		PostDto unversionedPostDto = PostDto.builder()
+											.title("test title updated")
+											.description("test description updated")
+											.content("test content updated")
+											.build();
+		given(postService.updatePost(anyLong(), any(PostDto.class))).willReturn(postDto);
+		
+		ResultActions resultActions = mockMvc.perform(put("/api/posts/{id}", postDto.getId())
+				.header(HttpHeaders.IF_MATCH, "\"post-1-v3-c7\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(unversionedPostDto)));
+		
+		resultActions.andExpect(status().isOk())
+					 .andDo(print());
+		
+		verify(postService).updatePost(eq(1L), argThat(dto -> Long.valueOf(3).equals(dto.getVersion())));
+	}
+	
+	@Test
+	void givenStaleIfMatch_whenUpdatePost_thenReturnPreconditionFailed() throws Exception {
+		given(postService.updatePost(anyLong(), any(PostDto.class)))
+			.willThrow(new ObjectOptimisticLockingFailureException(PostEntity.class, 1L));
+		
+		ResultActions resultActions = mockMvc.perform(put("/api/posts/{id}", postDto.getId())
+				.header(HttpHeaders.IF_MATCH, "\"post-1-v0\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(postDto)));
+		
+		resultActions.andExpect(status().isPreconditionFailed())
+					 .andDo(print());
+	}
+	
+	@Test
+	void givenIfMatchOfOtherPost_whenUpdatePost_thenReturnPreconditionFailed() throws Exception {
+		ResultActions resultActions = mockMvc.perform(put("/api/posts/{id}", postDto.getId())
+				.header(HttpHeaders.IF_MATCH, "\"post-2-v0\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(postDto)));
+		
+		resultActions.andExpect(status().isPreconditionFailed())
+					 .andDo(print());
+		
+		verify(postService, never()).updatePost(anyLong(), any(PostDto.class));
+	}
+	
+	@Test
+	void givenConcurrentModification_whenUpdatePost_thenReturnConflict() throws Exception {
+		given(postService.updatePost(anyLong(), any(PostDto.class)))
+			.willThrow(new ObjectOptimisticLockingFailureException(PostEntity.class, 1L));
+		
+		ResultActions resultActions = mockMvc.perform(put("/api/posts/{id}", postDto.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(postDto)));
+		
+		resultActions.andExpect(status().isConflict())
+					 .andExpect(jsonPath("$.status", CoreMatchers.is("CONFLICT")))
+					 .andDo(print());
+	}
+	
 	@Test
 	void givenValidId_whenDeletePostById_thenReturnSuccessMsg() throws Exception {
 		willDoNothing().given(postService).deletePostById(anyLong());
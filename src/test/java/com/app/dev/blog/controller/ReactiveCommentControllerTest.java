@@ -0,0 +1,75 @@
+package com.app.dev.blog.controller;
+
+import static org.mockito.BDDMockito.given;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.service.ReactiveCommentService;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@WebFluxTest(controllers = ReactiveCommentController.class)
+class ReactiveCommentControllerTest {
+	
+	@Autowired
+	private WebTestClient webTestClient;
+	
+	@MockBean
+	private ReactiveCommentService reactiveCommentService;
+	
+	private static Flux<CommentDto> comments() {
+		return Flux.just(new CommentDto(1L, "Reader", "reader@example.com", "First comment body", 0L),
+						 new CommentDto(2L, "Writer", "writer@example.com", "Second comment body", 0L));
+	}
+	
+	@Test
+	void givenPostId_whenGetCommentsByPostId_thenReturnJsonArray() {
+		given(reactiveCommentService.getCommentsByPostId(1L)).willReturn(comments());
+		
+		webTestClient.get().uri("/api/posts/{postId}/comments", 1L)
+					 .accept(MediaType.APPLICATION_JSON)
+					 .exchange()
+					 .expectStatus().isOk()
+					 .expectBody()
+					 .jsonPath("$.length()").isEqualTo(2)
+					 .jsonPath("$[1].name").isEqualTo("Writer");
+	}
+	
+	@Test
+	void givenNdjsonAccept_whenGetCommentsByPostId_thenStreamOneCommentPerLine() {
+		given(reactiveCommentService.getCommentsByPostId(1L)).willReturn(comments());
+		
+		Flux<CommentDto> body = webTestClient.get().uri("/api/posts/{postId}/comments", 1L)
+					 .accept(MediaType.APPLICATION_NDJSON)
+					 .exchange()
+					 .expectStatus().isOk()
+					 .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+					 .returnResult(CommentDto.class)
+					 .getResponseBody();
+		
+		StepVerifier.create(body.map(CommentDto::getId))
+					.expectNext(1L, 2L)
+					.verifyComplete();
+	}
+	
+	@Test
+	void givenMissingPost_whenGetCommentsByPostId_thenReturnNotFound() {
+		given(reactiveCommentService.getCommentsByPostId(9L))
+			.willReturn(Flux.error(new ResourceNotFoundException("Post", "id", 9L)));
+		
+		webTestClient.get().uri("/api/posts/{postId}/comments", 9L)
+					 .exchange()
+					 .expectStatus().isNotFound()
+					 .expectBody()
+					 .jsonPath("$.status").isEqualTo("NOT_FOUND")
+					 .jsonPath("$.path").isEqualTo("uri=/api/posts/9/comments");
+	}
+}
@@ -0,0 +1,136 @@
+package com.app.dev.blog.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-operation latency histograms of a load run. Values are recorded in
+ * microseconds and reported in milliseconds.
+ * <p>
+ * {@link #write(Path)} leaves a {@code summary.csv} plus one percentile
+ * distribution ({@code .hgrm}) per operation. A previous {@code summary.csv}
+ * can be passed back as the baseline of a later run to print the p99 change
+ * per operation.
+ */
+final class LatencyReport {
+	
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+	
+	private static final double MICROS_PER_MILLI = 1000.0;
+	
+	private static final String CSV_HEADER = "operation,requests,errors,throughput,p50,p90,p99,p99.9,max";
+	
+	private static final String ALL = "ALL";
+	
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+	
+	private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+	
+	private final Histogram all = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+	
+	private Duration elapsed = Duration.ZERO;
+	
+	void record(String operation, long elapsedNanos, boolean successful) {
+		long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+		histograms.computeIfAbsent(operation, key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3)).recordValue(micros);
+		all.recordValue(micros);
+		if(!successful)
+			errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+	}
+	
+	void finish(Duration elapsed) {
+		this.elapsed = elapsed;
+	}
+	
+	long errors() {
+		return errors.values().stream().mapToLong(LongAdder::sum).sum();
+	}
+	
+	void print(PrintStream out, Map<String, Double> baselineP99) {
+		out.printf("%-44s %9s %7s %9s %9s %9s %9s %9s %9s%s%n", "operation", "requests", "errors", "req/s",
+				"p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", baselineP99.isEmpty() ? "" : "  p99 vs baseline");
+		for(String[] row : this.rows()) {
+			Double baseline = baselineP99.get(row[0]);
+			String delta = baseline == null || baseline == 0 ? ""
+					: String.format(Locale.ROOT, "  %+.1f%%", (Double.parseDouble(row[6]) - baseline) / baseline * 100);
+			out.printf("%-44s %9s %7s %9s %9s %9s %9s %9s %9s%s%n", (Object[]) append(row, delta));
+		}
+	}
+	
+	void write(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		List<String> lines = new ArrayList<>();
+		lines.add(CSV_HEADER);
+		for(String[] row : this.rows())
+			lines.add(String.join(",", row));
+		Files.write(directory.resolve("summary.csv"), lines);
+		
+		Map<String, Histogram> distributions = new HashMap<>(histograms);
+		distributions.put(ALL, all);
+		for(Map.Entry<String, Histogram> entry : distributions.entrySet()) {
+			String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+			try(PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+				entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+			}
+		}
+	}
+	
+	static Map<String, Double> readBaselineP99(Path summary) throws IOException {
+		Map<String, Double> p99 = new HashMap<>();
+		for(String line : Files.readAllLines(summary)) {
+			String[] columns = line.split(",");
+			if(!line.equals(CSV_HEADER) && columns.length > 6)
+				p99.put(columns[0], Double.parseDouble(columns[6]));
+		}
+		return p99;
+	}
+	
+	private List<String[]> rows() {
+		List<String[]> rows = new ArrayList<>();
+		histograms.keySet().stream().sorted().forEach(operation -> rows.add(this.row(operation, histograms.get(operation))));
+		rows.add(this.row(ALL, all));
+		return rows;
+	}
+	
+	private String[] row(String operation, Histogram histogram) {
+		long failed = ALL.equals(operation) ? this.errors() 
+				: errors.getOrDefault(operation, new LongAdder()).sum();
+		double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+		return new String[] {
+				operation,
+				String.valueOf(histogram.getTotalCount()),
+				String.valueOf(failed),
+				String.format(Locale.ROOT, "%.1f", histogram.getTotalCount() / seconds),
+				millis(histogram.getValueAtPercentile(50)),
+				millis(histogram.getValueAtPercentile(90)),
+				millis(histogram.getValueAtPercentile(99)),
+				millis(histogram.getValueAtPercentile(99.9)),
+				millis(histogram.getMaxValue())
+		};
+	}
+	
+	private static String millis(long micros) {
+		return String.format(Locale.ROOT, "%.2f", micros / MICROS_PER_MILLI);
+	}
+	
+	private static String[] append(String[] row, String value) {
+		String[] appended = Arrays.copyOf(row, row.length + 1);
+		appended[row.length] = value;
+		return appended;
+	}
+}
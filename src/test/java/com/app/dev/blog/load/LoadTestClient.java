@@ -0,0 +1,81 @@
+package com.app.dev.blog.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Blocking HTTP calls against a running instance, one per worker thread.
+ */
+final class LoadTestClient {
+	
+	record Response(int status, String body) {
+		
+		boolean isSuccessful() {
+			return status >= 200 && status < 300;
+		}
+	}
+	
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+	
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+	
+	private final String baseUrl;
+	
+	private final ObjectMapper objectMapper;
+	
+	LoadTestClient(int port, ObjectMapper objectMapper) {
+		this.baseUrl = "http://localhost:" + port;
+		this.objectMapper = objectMapper;
+	}
+	
+	Response get(String path) throws IOException, InterruptedException {
+		return this.send(this.request(path).GET());
+	}
+	
+	Response delete(String path) throws IOException, InterruptedException {
+		return this.send(this.request(path).DELETE());
+	}
+	
+	Response post(String path, Object body) throws IOException, InterruptedException {
+		return this.send(this.request(path)
+				.header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+				.POST(BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+	}
+	
+	Response postNdjson(String path, String body) throws IOException, InterruptedException {
+		return this.send(this.request(path)
+				.header("Content-Type", MediaType.APPLICATION_NDJSON_VALUE)
+				.POST(BodyPublishers.ofString(body)));
+	}
+	
+	Response put(String path, Object body) throws IOException, InterruptedException {
+		return this.send(this.request(path)
+				.header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+				.PUT(BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+	}
+	
+	JsonNode json(Response response) throws JsonProcessingException {
+		return objectMapper.readTree(response.body());
+	}
+	
+	private HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+	}
+	
+	private Response send(HttpRequest.Builder request) throws IOException, InterruptedException {
+		HttpResponse<String> response = httpClient.send(request.build(), BodyHandlers.ofString());
+		return new Response(response.statusCode(), response.body());
+	}
+}
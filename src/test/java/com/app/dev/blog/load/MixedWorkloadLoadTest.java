@@ -0,0 +1,335 @@
+package com.app.dev.blog.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app.dev.blog.containers.TestContainerConfig;
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.CommentUpdateDto;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.load.LoadTestClient.Response;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.repository.PostRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Seeds posts and comments over HTTP, then runs a weighted mix of every
+ * {@code PostController} and {@code CommentController} endpoint from a fixed
+ * number of closed-loop workers and reports HdrHistogram percentiles per
+ * endpoint.
+ * 
+ * <pre>
+ * mvn test -Dtest=MixedWorkloadLoadTest -Dblog.loadtest=true
+ *     [-Dblog.loadtest.database=h2]           embedded H2 instead of the MySQL container
+ *     [-Dblog.loadtest.posts=1000] [-Dblog.loadtest.comments=20000]
+ *     [-Dblog.loadtest.concurrency=32] [-Dblog.loadtest.warmup=PT15S] [-Dblog.loadtest.duration=PT60S]
+ *     [-Dblog.loadtest.baseline=target/load-test/&lt;run&gt;/summary.csv]
+ * </pre>
+ * 
+ * Reads only touch seeded rows, while updates and deletes only touch rows the
+ * workload created itself, so every request has one correct answer and any
+ * other status counts as an error.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "blog.loadtest", matches = "true")
+class MixedWorkloadLoadTest {
+	
+	private static final int POSTS = Integer.getInteger("blog.loadtest.posts", 1000);
+	
+	private static final int COMMENTS = Integer.getInteger("blog.loadtest.comments", 20_000);
+	
+	private static final int CONCURRENCY = Integer.getInteger("blog.loadtest.concurrency", 32);
+	
+	private static final Duration WARMUP = Duration.parse(System.getProperty("blog.loadtest.warmup", "PT15S"));
+	
+	private static final Duration DURATION = Duration.parse(System.getProperty("blog.loadtest.duration", "PT60S"));
+	
+	private static final int SEED_BATCH_SIZE = 100;
+	
+	private static final String BODY = "Load test comment body";
+	
+	private record Operation(String name, int weight, Call call) {
+	}
+	
+	@FunctionalInterface
+	private interface Call {
+		boolean run() throws Exception;
+	}
+	
+	private record CommentRef(long postId, long commentId) {
+	}
+	
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		if("h2".equals(System.getProperty("blog.loadtest.database"))) {
+			// MySQL mode and dialect keep the statements, and the table backed comment sequence, as in production
+			registry.add("spring.datasource.url", () -> "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+			registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+			registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.MySQLDialect");
+			registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+			registry.add("blog.query-budget.enforce", () -> "true");
+		} else {
+			TestContainerConfig.dynamicPropertySources(registry);
+		}
+	}
+	
+	@LocalServerPort
+	private int port;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private PostRepository postRepository;
+	
+	private LoadTestClient client;
+	
+	private final AtomicLong sequence = new AtomicLong();
+	
+	private final List<Long> seededPosts = new ArrayList<>();
+	
+	private final List<CommentRef> seededComments = new ArrayList<>();
+	
+	private final Queue<Long> createdPosts = new ConcurrentLinkedQueue<>();
+	
+	private final Queue<CommentRef> createdComments = new ConcurrentLinkedQueue<>();
+	
+	private String secondPageCursor;
+	
+	@Test
+	void givenSeededBlog_whenMixedWorkloadRuns_thenEveryEndpointAnswersAsExpected() throws Exception {
+		client = new LoadTestClient(port, objectMapper);
+		this.seed();
+		List<Operation> operations = this.operations();
+		
+		this.run(operations, WARMUP, new LatencyReport());
+		LatencyReport report = new LatencyReport();
+		this.run(operations, DURATION, report);
+		
+		String baseline = System.getProperty("blog.loadtest.baseline");
+		report.print(System.out, baseline == null ? Map.of() : LatencyReport.readBaselineP99(Path.of(baseline)));
+		Path directory = Path.of("target", "load-test", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+		report.write(directory);
+		System.out.println("Histograms written to " + directory.toAbsolutePath());
+		
+		assertThat(report.errors()).isZero();
+	}
+	
+	private void seed() throws Exception {
+		for(int from = 0; from < POSTS; from += SEED_BATCH_SIZE) {
+			StringBuilder ndjson = new StringBuilder();
+			for(int i = from; i < Math.min(from + SEED_BATCH_SIZE, POSTS); i++)
+				ndjson.append(objectMapper.writeValueAsString(this.newPost("Seeded"))).append('\n');
+			assertThat(client.postNdjson("/api/posts/bulk", ndjson.toString()).isSuccessful()).isTrue();
+		}
+		postRepository.findAll().stream().map(PostEntity::getId).sorted().forEach(seededPosts::add);
+		
+		// spread evenly, so every post a comment read picks has comments to return
+		for(int i = 0; i < seededPosts.size(); i++) {
+			long postId = seededPosts.get(i);
+			int count = COMMENTS / seededPosts.size() + (i < COMMENTS % seededPosts.size() ? 1 : 0);
+			for(int from = 0; from < count; from += SEED_BATCH_SIZE) {
+				List<CommentDto> batch = IntStream.range(from, Math.min(from + SEED_BATCH_SIZE, count))
+												  .mapToObj(n -> this.newComment())
+												  .toList();
+				Response response = client.post("/api/posts/" + postId + "/comments/batch", batch);
+				assertThat(response.isSuccessful()).isTrue();
+				client.json(response).forEach(item -> seededComments.add(new CommentRef(postId, item.get("id").asLong())));
+			}
+		}
+		
+		secondPageCursor = client.json(client.get("/api/posts?after=&pageSize=10")).get("nextCursor").asText();
+	}
+	
+	private List<Operation> operations() {
+		List<Operation> operations = new ArrayList<>();
+		// reads, about 85% of the traffic
+		operations.add(new Operation("GET /api/posts", 10, 
+				() -> this.ok(client.get("/api/posts?pageNo=" + this.random(POSTS / 10) + "&pageSize=10"))));
+		operations.add(new Operation("GET /api/posts?withTotal=false", 8, 
+				() -> this.ok(client.get("/api/posts?withTotal=false&pageNo=" + this.random(POSTS / 10) + "&pageSize=10"))));
+		operations.add(new Operation("GET /api/posts?after", 8, 
+				() -> this.ok(client.get("/api/posts?pageSize=10&after=" + secondPageCursor))));
+		operations.add(new Operation("GET /api/posts/{id}", 20, 
+				() -> this.ok(client.get("/api/posts/" + this.seededPost()))));
+		operations.add(new Operation("GET /api/posts/search", 5, 
+				() -> this.ok(client.get("/api/posts/search?q=seeded+" + this.random(POSTS)))));
+		operations.add(new Operation("GET /api/posts/suggest", 5, 
+				() -> this.ok(client.get("/api/posts/suggest?prefix=Seed"))));
+		operations.add(new Operation("GET /api/posts/export", 1, 
+				() -> this.ok(client.get("/api/posts/export"))));
+		operations.add(new Operation("GET /api/posts/{postId}/comments", 10, 
+				() -> this.ok(client.get("/api/posts/" + this.seededComment().postId() + "/comments"))));
+		operations.add(new Operation("GET /api/posts/{postId}/comments?limit", 8, 
+				() -> this.ok(client.get("/api/posts/" + this.seededComment().postId() + "/comments?limit=20"))));
+		operations.add(new Operation("GET /api/posts/{postId}/comments/{id}", 10, () -> {
+			CommentRef comment = this.seededComment();
+			return this.ok(client.get("/api/posts/" + comment.postId() + "/comments/" + comment.commentId()));
+		}));
+		
+		// writes
+		operations.add(new Operation("POST /api/posts", 3, this::createPost));
+		operations.add(new Operation("POST /api/posts/bulk", 1, () -> {
+			String ndjson = IntStream.range(0, 10)
+									 .mapToObj(i -> this.write(this.newPost("Bulk")))
+									 .collect(Collectors.joining("\n"));
+			return this.ok(client.postNdjson("/api/posts/bulk", ndjson));
+		}));
+		operations.add(new Operation("PUT /api/posts/{id}", 2, () -> {
+			Long postId = createdPosts.poll();
+			if(postId == null)
+				return this.createPost();
+			
+			try {
+				return this.ok(client.put("/api/posts/" + postId, this.newPost("Updated")));
+			} finally {
+				createdPosts.add(postId);
+			}
+		}));
+		operations.add(new Operation("DELETE /api/posts/{id}", 1, () -> {
+			Long postId = createdPosts.poll();
+			return postId == null ? this.createPost() : this.ok(client.delete("/api/posts/" + postId));
+		}));
+		operations.add(new Operation("POST /api/posts/{postId}/comments", 3, this::createComment));
+		operations.add(new Operation("POST /api/posts/{postId}/comments/batch", 1, 
+				() -> this.ok(client.post("/api/posts/" + this.seededPost() + "/comments/batch", 
+						Collections.nCopies(5, this.newComment())))));
+		operations.add(new Operation("PUT /api/posts/{postId}/comments/{id}", 2, () -> {
+			CommentRef comment = createdComments.poll();
+			if(comment == null)
+				return this.createComment();
+			
+			try {
+				CommentUpdateDto update = CommentUpdateDto.builder().body(BODY + " edited").build();
+				return this.ok(client.put("/api/posts/" + comment.postId() + "/comments/" + comment.commentId(), update));
+			} finally {
+				createdComments.add(comment);
+			}
+		}));
+		operations.add(new Operation("DELETE /api/posts/{postId}/comments/{id}", 2, () -> {
+			CommentRef comment = createdComments.poll();
+			return comment == null ? this.createComment() 
+					: this.ok(client.delete("/api/posts/" + comment.postId() + "/comments/" + comment.commentId()));
+		}));
+		return operations;
+	}
+	
+	private void run(List<Operation> operations, Duration duration, LatencyReport report) throws InterruptedException {
+		int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+		long deadline = System.nanoTime() + duration.toNanos();
+		long started = System.nanoTime();
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+		for(int i = 0; i < CONCURRENCY; i++) {
+			workers.execute(() -> {
+				while(System.nanoTime() < deadline) {
+					Operation operation = pick(operations, ThreadLocalRandom.current().nextInt(totalWeight));
+					long start = System.nanoTime();
+					boolean successful;
+					try {
+						successful = operation.call().run();
+					} catch (Exception e) {
+						successful = false;
+					}
+					report.record(operation.name(), System.nanoTime() - start, successful);
+				}
+			});
+		}
+		workers.shutdown();
+		assertThat(workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)).isTrue();
+		report.finish(Duration.ofNanos(System.nanoTime() - started));
+	}
+	
+	private static Operation pick(List<Operation> operations, int ticket) {
+		for(Operation operation : operations) {
+			ticket -= operation.weight();
+			if(ticket < 0)
+				return operation;
+		}
+		throw new IllegalStateException("weights changed during the run");
+	}
+	
+	private boolean createPost() throws Exception {
+		Response response = client.post("/api/posts", this.newPost("Created"));
+		if(response.isSuccessful())
+			createdPosts.add(client.json(response).get("id").asLong());
+		return response.isSuccessful();
+	}
+	
+	private boolean createComment() throws Exception {
+		long postId = this.seededPost();
+		Response response = client.post("/api/posts/" + postId + "/comments", this.newComment());
+		if(response.isSuccessful())
+			createdComments.add(new CommentRef(postId, client.json(response).get("id").asLong()));
+		return response.isSuccessful();
+	}
+	
+	private boolean ok(Response response) {
+		return response.isSuccessful();
+	}
+	
+	private long seededPost() {
+		return seededPosts.get(this.random(seededPosts.size()));
+	}
+	
+	private CommentRef seededComment() {
+		return seededComments.get(this.random(seededComments.size()));
+	}
+	
+	private int random(int bound) {
+		return ThreadLocalRandom.current().nextInt(Math.max(bound, 1));
+	}
+	
+	private PostDto newPost(String kind) {
+		long n = sequence.incrementAndGet();
+		return PostDto.builder()
+					  .title(kind + " post " + n)
+					  .description("Description of " + kind.toLowerCase() + " post " + n)
+					  .content("Content of post " + n)
+					  .build();
+	}
+	
+	private CommentDto newComment() {
+		long n = sequence.incrementAndGet();
+		return CommentDto.builder()
+						 .name("Reader " + n)
+						 .email("reader" + n + "@example.com")
+						 .body(BODY + " " + n)
+						 .build();
+	}
+	
+	private String write(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
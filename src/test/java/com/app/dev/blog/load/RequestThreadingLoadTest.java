@@ -0,0 +1,170 @@
+package com.app.dev.blog.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+import org.testcontainers.containers.MySQLContainer;
+
+import com.app.dev.blog.BlogRestApiApplication;
+import com.app.dev.blog.model.CommentEntity;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.repository.CommentRepository;
+import com.app.dev.blog.repository.PostRepository;
+
+/**
+ * Drives the uncached, database-bound read endpoints with far more requests in
+ * flight than Tomcat has worker threads, once on platform threads and once on
+ * virtual threads, and prints throughput and latency percentiles for both.
+ * 
+ * <pre>
+ * mvn test -Pvirtual-threads -Dtest=RequestThreadingLoadTest -Dblog.loadtest=true
+ * </pre>
+ * 
+ * Without the profile only the platform-thread run happens.
+ */
+@EnabledIfSystemProperty(named = "blog.loadtest", matches = "true")
+class RequestThreadingLoadTest {
+	
+	private static final String VIRTUAL_THREAD_CONFIG = "com.app.dev.blog.config.VirtualThreadConfig";
+	
+	private static final String COMMENTS_OPERATION = "GET /api/posts/{postId}/comments?limit";
+	
+	private static final String POSTS_OPERATION = "GET /api/posts?withTotal=false";
+	
+	private static final int POSTS = 200;
+	
+	private static final int COMMENTS_PER_POST = 50;
+	
+	private static final int CONCURRENCY = Integer.getInteger("blog.loadtest.concurrency", 1000);
+	
+	private static final int REQUESTS = Integer.getInteger("blog.loadtest.requests", 50_000);
+	
+	private static MySQLContainer<?> mysql;
+	
+	private static HttpClient httpClient;
+	
+	@BeforeAll
+	static void startDatabase() {
+		mysql = new MySQLContainer<>("mysql:latest");
+		mysql.start();
+		httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+	}
+	
+	@AfterAll
+	static void stopDatabase() {
+		mysql.stop();
+	}
+	
+	@Test
+	void givenMoreRequestsInFlightThanWorkerThreads_whenServedOnPlatformAndVirtualThreads_thenBothServeWithoutErrors() throws Exception {
+		Map<String, LatencyReport> reports = new LinkedHashMap<>();
+		reports.put("platform", run(false));
+		if (ClassUtils.isPresent(VIRTUAL_THREAD_CONFIG, null)) {
+			reports.put("virtual", run(true));
+		}
+		
+		reports.forEach((mode, report) -> {
+			System.out.println(mode + " threads, " + CONCURRENCY + " requests in flight");
+			report.print(System.out, Map.of());
+		});
+		reports.forEach((mode, report) -> assertThat(report.errors()).as(mode).isZero());
+	}
+	
+	private LatencyReport run(boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogRestApiApplication.class)
+				.properties("server.port=0",
+						"spring.datasource.url=" + mysql.getJdbcUrl(),
+						"spring.datasource.username=" + mysql.getUsername(),
+						"spring.datasource.password=" + mysql.getPassword(),
+						"spring.jpa.show-sql=false",
+						"spring.datasource.hikari.connection-timeout=3000",
+						"blog.threads.virtual=" + virtualThreads)
+				.run()) {
+			seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			drive(port, REQUESTS / 10);
+			return drive(port, REQUESTS);
+		}
+	}
+	
+	private void seed(ConfigurableApplicationContext context) {
+		PostRepository postRepository = context.getBean(PostRepository.class);
+		if (postRepository.count() > 0) {
+			return;
+		}
+		CommentRepository commentRepository = context.getBean(CommentRepository.class);
+		for (int i = 0; i < POSTS; i++) {
+			PostEntity postEntity = postRepository.save(PostEntity.builder()
+					.title("Load post " + i)
+					.description("Seeded for the threading load test")
+					.content("content ".repeat(50))
+					.commentCount(COMMENTS_PER_POST)
+					.build());
+			List<CommentEntity> comments = new ArrayList<>(COMMENTS_PER_POST);
+			for (int j = 0; j < COMMENTS_PER_POST; j++) {
+				comments.add(CommentEntity.builder()
+						.name("reader" + j)
+						.email("reader" + j + "@example.com")
+						.body("comment body " + j)
+						.postEntity(postEntity)
+						.build());
+			}
+			commentRepository.saveAll(comments);
+		}
+	}
+	
+	private LatencyReport drive(int port, int requests) throws InterruptedException {
+		LatencyReport report = new LatencyReport();
+		Semaphore inFlight = new Semaphore(CONCURRENCY);
+		CountDownLatch done = new CountDownLatch(requests);
+		long started = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			String operation = i % 2 == 0 ? COMMENTS_OPERATION : POSTS_OPERATION;
+			String path = path(i);
+			inFlight.acquire();
+			long sent = System.nanoTime();
+			httpClient.sendAsync(request(port, path), HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, failure) -> {
+						report.record(operation, System.nanoTime() - sent, failure == null && response.statusCode() == 200);
+						inFlight.release();
+						done.countDown();
+					});
+		}
+		done.await();
+		report.finish(Duration.ofNanos(System.nanoTime() - started));
+		return report;
+	}
+	
+	private String path(int i) {
+		// both routes skip the caches so every request borrows a connection
+		return i % 2 == 0
+				? "/api/posts/" + (i % POSTS + 1) + "/comments?limit=20"
+				: "/api/posts?withTotal=false&pageNo=" + (i % 20) + "&pageSize=10";
+	}
+	
+	private HttpRequest request(int port, String path) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+	}
+}
@@ -0,0 +1,99 @@
+package com.app.dev.blog.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.app.dev.blog.controller.PostController;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.service.PostBulkService;
+import com.app.dev.blog.service.PostService;
+
+import jakarta.servlet.ServletException;
+
+@WebMvcTest(controllers = PostController.class, properties = "blog.query-budget.enforce=true")
+class QueryBudgetAdviceTest {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@MockBean
+	private PostService postService;
+	
+	@MockBean
+	private PostBulkService postBulkService;
+	
+	@Test
+	public void givenHandlerWithinBudget_whenRequest_thenReturnQueryHeaders() throws Exception {
+		// given
+		willAnswer(invocation -> {
+			executeStatements(2, 1_500_000);
+			return PostDto.builder().id(1L).title("title").version(0L).build();
+		}).given(postService).getPostById(1L);
+		
+		// when - then
+		mockMvc.perform(get("/api/posts/{id}", 1L))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string(QueryBudgetAdvice.QUERY_COUNT_HEADER, "2"))
+			   .andExpect(header().string(QueryBudgetAdvice.QUERY_TIME_HEADER, "3.00"));
+	}
+	
+	@Test
+	public void givenHandlerOverBudget_whenRequest_thenFail() {
+		// given
+		willAnswer(invocation -> {
+			executeStatements(2, 0);
+			return List.of(new PostSuggestionDto(1L, "title"));
+		}).given(postService).suggestTitles("ti", 10);
+		
+		// when
+		ServletException exception = assertThrows(ServletException.class, 
+				() -> mockMvc.perform(get("/api/posts/suggest").param("prefix", "ti")));
+		
+		// then
+		assertThat(exception.getRootCause())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("PostController.suggestTitles executed 2 statements, over its query budget of 1");
+	}
+	
+	@Test
+	public void givenRepeatedSelects_whenMostRepeated_thenReturnStatementAndCount() {
+		// given
+		QueryStats stats = QueryStats.start();
+		QueryStatsStatementInspector inspector = new QueryStatsStatementInspector();
+		try {
+			// when
+			inspector.inspect("select p1_0.id from posts p1_0");
+			for(int i = 0; i < 3; i++) {
+				inspector.inspect("/* load CommentEntity */ select c1_0.id from comments c1_0 where c1_0.post_id=?");
+				inspector.inspect("insert into comments (body,id) values (?,?)");
+			}
+		} finally {
+			QueryStats.clear();
+		}
+		
+		// then
+		assertThat(stats.mostRepeated()).hasValueSatisfying(entry -> {
+			assertThat(entry.getKey()).endsWith("where c1_0.post_id=?");
+			assertThat(entry.getValue()).isEqualTo(3);
+		});
+	}
+	
+	private static void executeStatements(int count, long nanosEach) {
+		QueryStats stats = QueryStats.current().orElseThrow();
+		for(int i = 0; i < count; i++)
+			stats.executed(nanosEach);
+	}
+}
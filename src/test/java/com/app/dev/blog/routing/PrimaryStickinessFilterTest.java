@@ -0,0 +1,65 @@
+package com.app.dev.blog.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.Cookie;
+
+class PrimaryStickinessFilterTest {
+	
+	private PrimaryStickinessFilter filter = new PrimaryStickinessFilter(Duration.ofSeconds(5));
+	
+	@Test
+	public void givenWriteRequest_whenFilter_thenForcePrimaryAndSetCookie() throws Exception {
+		// given
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/posts");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		// when
+		AtomicBoolean forced = this.filter(request, response);
+		
+		// then
+		assertThat(forced).isTrue();
+		assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).startsWith(PrimaryStickinessFilter.COOKIE_NAME + "=")
+															  .contains("Max-Age=5");
+		assertThat(RoutingContext.isPrimaryForced()).isFalse();
+	}
+	
+	@Test
+	public void givenReadWithUnexpiredCookie_whenFilter_thenForcePrimary() throws Exception {
+		// given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+		request.setCookies(new Cookie(PrimaryStickinessFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() + 5000)));
+		
+		// when - then
+		assertThat(this.filter(request, new MockHttpServletResponse())).isTrue();
+	}
+	
+	@Test
+	public void givenReadWithExpiredCookie_whenFilter_thenAllowReplica() throws Exception {
+		// given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+		request.setCookies(new Cookie(PrimaryStickinessFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1)));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		// when
+		AtomicBoolean forced = this.filter(request, response);
+		
+		// then
+		assertThat(forced).isFalse();
+		assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+	}
+	
+	private AtomicBoolean filter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+		AtomicBoolean forced = new AtomicBoolean();
+		filter.doFilter(request, response, (filteredRequest, filteredResponse) -> forced.set(RoutingContext.isPrimaryForced()));
+		return forced;
+	}
+}
@@ -0,0 +1,149 @@
+package com.app.dev.blog.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReadWriteRoutingDataSourceTest {
+	
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	
+	private JdbcTemplate jdbcTemplate;
+	
+	private ReplicaSelector replicaSelector;
+	
+	@AfterEach
+	public void tearDown() throws Exception {
+		RoutingContext.clear();
+		if(replicaSelector != null)
+			replicaSelector.close();
+	}
+	
+	@Test
+	public void givenReadOnlyTransaction_whenQuery_thenUseReplica() {
+		// given
+		TransactionTemplate transactionTemplate = this.transactionTemplate(this.selector(false));
+		transactionTemplate.setReadOnly(true);
+		
+		// when - then
+		assertThat(this.serverIn(transactionTemplate)).isEqualTo("replica");
+		assertThat(meterRegistry.get("blog.datasource.connections").tag("target", "replica-0").counter().count()).isEqualTo(1);
+	}
+	
+	@Test
+	public void givenReadWriteTransaction_whenQuery_thenUsePrimary() {
+		// given
+		TransactionTemplate transactionTemplate = this.transactionTemplate(this.selector(false));
+		
+		// when - then
+		assertThat(this.serverIn(transactionTemplate)).isEqualTo("primary");
+	}
+	
+	@Test
+	public void givenReplicaThenPrimary_whenQuery_thenTrackLatestRoute() {
+		// given
+		TransactionTemplate readWrite = this.transactionTemplate(this.selector(false));
+		TransactionTemplate readOnly = new TransactionTemplate(readWrite.getTransactionManager());
+		readOnly.setReadOnly(true);
+		
+		// when - then
+		this.serverIn(readOnly);
+		assertThat(RoutingContext.isReplicaRead()).isTrue();
+		this.serverIn(readWrite);
+		assertThat(RoutingContext.isReplicaRead()).isFalse();
+	}
+	
+	@Test
+	public void givenPrimaryForced_whenReadOnlyTransaction_thenUsePrimary() {
+		// given
+		TransactionTemplate transactionTemplate = this.transactionTemplate(this.selector(false));
+		transactionTemplate.setReadOnly(true);
+		RoutingContext.forcePrimary();
+		
+		// when - then
+		assertThat(this.serverIn(transactionTemplate)).isEqualTo("primary");
+	}
+	
+	@Test
+	public void givenReplicaNotReplicating_whenReadOnlyTransaction_thenFallBackToPrimary() {
+		// given - H2 has no replica status, so the lag check fails
+		ReplicaSelector replicaSelector = this.selector(true);
+		TransactionTemplate transactionTemplate = this.transactionTemplate(replicaSelector);
+		transactionTemplate.setReadOnly(true);
+		
+		// when - then
+		assertThat(replicaSelector.healthy()).isEmpty();
+		assertThat(meterRegistry.get("blog.datasource.replicas.healthy").gauge().value()).isZero();
+		assertThat(this.serverIn(transactionTemplate)).isEqualTo("primary");
+	}
+	
+	@Test
+	public void givenUnresponsiveReplica_whenCheck_thenGiveUpAfterTimeout() throws SQLException {
+		// given - a pool that never hands out a connection
+		DataSource replica = mock(DataSource.class);
+		given(replica.getConnection()).willAnswer(invocation -> {
+			Thread.sleep(Duration.ofSeconds(10).toMillis());
+			return null;
+		});
+		
+		// when
+		long start = System.nanoTime();
+		ReplicaSelector replicaSelector = this.selector(replica, false);
+		replicaSelector.check();
+		
+		// then - the second round does not start another check behind the hanging one
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+		assertThat(replicaSelector.healthy()).isEmpty();
+		verify(replica, times(1)).getConnection();
+	}
+	
+	private String serverIn(TransactionTemplate transactionTemplate) {
+		return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM server", String.class));
+	}
+	
+	private ReplicaSelector selector(boolean lagCheck) {
+		return this.selector(database("replica"), lagCheck);
+	}
+	
+	private ReplicaSelector selector(DataSource replica, boolean lagCheck) {
+		replicaSelector = new ReplicaSelector(Map.of("replica-0", replica), Duration.ofSeconds(5), lagCheck, 
+											  Duration.ofMillis(200), meterRegistry);
+		replicaSelector.check();
+		return replicaSelector;
+	}
+	
+	private TransactionTemplate transactionTemplate(ReplicaSelector replicaSelector) {
+		DataSource dataSource = new LazyConnectionDataSourceProxy(
+				new ReadWriteRoutingDataSource(database("primary"), replicaSelector, meterRegistry));
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+	
+	private static DataSource database(String name) {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(16))");
+		jdbcTemplate.execute("DELETE FROM server");
+		jdbcTemplate.update("INSERT INTO server VALUES (?)", name);
+		return dataSource;
+	}
+}
@@ -0,0 +1,191 @@
+package com.app.dev.blog.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.Network;
+
+import com.app.dev.blog.dtos.PostDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Runs against a real MySQL source and a GTID replica of it, so the lag
+ * check sees actual replication status.
+ */
+@SpringBootTest(properties = {"blog.datasource.replicas.enabled=true", "blog.datasource.replicas.check-interval=PT0.2S",
+							  "spring.jpa.open-in-view=false"})
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+	
+	private static final String[] GTID = {"--gtid-mode=ON", "--enforce-gtid-consistency=ON"};
+	
+	private static final Network NETWORK = Network.newNetwork();
+	
+	private static final MySQLContainer<?> SOURCE = new MySQLContainer<>("mysql:latest")
+			.withNetwork(NETWORK)
+			.withNetworkAliases("source")
+			.withCommand(concat("--server-id=1", "--log-bin=mysql-bin"));
+	
+	private static final MySQLContainer<?> REPLICA = new MySQLContainer<>("mysql:latest")
+			.withNetwork(NETWORK)
+			.withCommand(concat("--server-id=2", "--read-only=ON"));
+	
+	static {
+		SOURCE.start();
+		REPLICA.start();
+		// both servers created the test database and user on their own, don't replay that part
+		execute(SOURCE, "RESET BINARY LOGS AND GTIDS");
+		execute(REPLICA, "CHANGE REPLICATION SOURCE TO SOURCE_HOST='source', SOURCE_PORT=3306, SOURCE_USER='root', "
+						 + "SOURCE_PASSWORD='" + SOURCE.getPassword() + "', SOURCE_AUTO_POSITION=1, GET_SOURCE_PUBLIC_KEY=1",
+				"START REPLICA");
+	}
+	
+	@DynamicPropertySource
+	static void dataSources(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", SOURCE::getJdbcUrl);
+		registry.add("spring.datasource.username", SOURCE::getUsername);
+		registry.add("spring.datasource.password", SOURCE::getPassword);
+		registry.add("blog.datasource.replicas.urls[0]", REPLICA::getJdbcUrl);
+	}
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@Autowired
+	private ReplicaSelector replicaSelector;
+	
+	@BeforeEach
+	public void setup() throws InterruptedException {
+		execute(REPLICA, "START REPLICA SQL_THREAD");
+		this.awaitHealthy(1);
+	}
+	
+	@Test
+	public void givenHealthyReplica_whenReadWithoutCookie_thenRouteToReplica() throws Exception {
+		// given
+		long id = this.createPost("routed to the replica").getId();
+		double before = this.connections("replica-0");
+		
+		// when - the replica may need a moment to apply the insert
+		this.awaitOk(id);
+		
+		// then
+		assertThat(this.connections("replica-0")).isGreaterThan(before);
+	}
+	
+	@Test
+	public void givenStickyCookie_whenReadAfterWrite_thenRouteToPrimary() throws Exception {
+		// given
+		MvcResult created = mockMvc.perform(post("/api/posts")
+										   .contentType(MediaType.APPLICATION_JSON)
+										   .content(objectMapper.writeValueAsString(newPost("read your own write"))))
+								   .andExpect(status().isCreated())
+								   .andReturn();
+		Cookie sticky = created.getResponse().getCookie(PrimaryStickinessFilter.COOKIE_NAME);
+		long id = objectMapper.readValue(created.getResponse().getContentAsString(), PostDto.class).getId();
+		double before = this.connections("replica-0");
+		
+		// when - then
+		mockMvc.perform(get("/api/posts/{id}", id).cookie(sticky)).andExpect(status().isOk());
+		assertThat(sticky).isNotNull();
+		assertThat(this.connections("replica-0")).isEqualTo(before);
+	}
+	
+	@Test
+	public void givenReplicationStopped_whenRead_thenFailOverToPrimary() throws Exception {
+		// given
+		execute(REPLICA, "STOP REPLICA SQL_THREAD");
+		this.awaitHealthy(0);
+		long id = this.createPost("written while the replica is stopped").getId();
+		double before = this.connections("replica-0");
+		
+		// when - then
+		mockMvc.perform(get("/api/posts/{id}", id)).andExpect(status().isOk());
+		assertThat(this.connections("replica-0")).isEqualTo(before);
+	}
+	
+	private PostDto createPost(String title) throws Exception {
+		String response = mockMvc.perform(post("/api/posts")
+										 .contentType(MediaType.APPLICATION_JSON)
+										 .content(objectMapper.writeValueAsString(newPost(title))))
+								 .andExpect(status().isCreated())
+								 .andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(response, PostDto.class);
+	}
+	
+	private void awaitOk(long id) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		int status = mockMvc.perform(get("/api/posts/{id}", id)).andReturn().getResponse().getStatus();
+		while(status != 200 && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(100);
+			status = mockMvc.perform(get("/api/posts/{id}", id)).andReturn().getResponse().getStatus();
+		}
+		assertThat(status).isEqualTo(200);
+	}
+	
+	private void awaitHealthy(int replicas) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while(replicaSelector.healthy().size() != replicas && System.nanoTime() < deadline)
+			TimeUnit.MILLISECONDS.sleep(100);
+		assertThat(replicaSelector.healthy()).hasSize(replicas);
+	}
+	
+	private double connections(String target) {
+		Counter counter = meterRegistry.find("blog.datasource.connections").tag("target", target).counter();
+		return counter == null ? 0 : counter.count();
+	}
+	
+	private static PostDto newPost(String title) {
+		return PostDto.builder()
+					  .title(title + " " + System.nanoTime())
+					  .description("replica routing test")
+					  .content("replica routing test")
+					  .build();
+	}
+	
+	private static String[] concat(String... options) {
+		String[] command = new String[options.length + GTID.length];
+		System.arraycopy(options, 0, command, 0, options.length);
+		System.arraycopy(GTID, 0, command, options.length, GTID.length);
+		return command;
+	}
+	
+	private static void execute(MySQLContainer<?> container, String... statements) {
+		try(Connection connection = DriverManager.getConnection(container.getJdbcUrl(), "root", container.getPassword());
+			Statement statement = connection.createStatement()) {
+			for(String sql : statements)
+				statement.execute(sql);
+		} catch (SQLException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.app.dev.blog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.app.dev.blog.exception.BlogApiException;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.repository.PostRepository;
+
+class PostSearchIndexTest {
+	
+	private PostSearchIndex postSearchIndex;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		postSearchIndex = new PostSearchIndex(mock(PostRepository.class), mock(PlatformTransactionManager.class));
+		postSearchIndex.index(1, "Spring caching", "How the cache abstraction works", "caffeine and redis");
+		postSearchIndex.index(2, "Lucene basics", "Inverted indexes explained", "posting lists and spring integration");
+		postSearchIndex.index(3, "Unrelated", "Nothing to see here", "just some text");
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		postSearchIndex.destroy();
+	}
+	
+	@Test
+	void givenIndexedPosts_whenSearch_thenRankTitleMatchesFirst() {
+		PostSearchHits hits = postSearchIndex.search("spring", 0, 10);
+		
+		assertThat(hits.ids()).containsExactly(1l, 2l);
+		assertThat(hits.totalHits()).isEqualTo(2);
+	}
+	
+	@Test
+	void givenIndexedPosts_whenSearchSecondPage_thenReturnRemainingHits() {
+		PostSearchHits hits = postSearchIndex.search("spring", 1, 1);
+		
+		assertThat(hits.ids()).containsExactly(2l);
+		assertThat(hits.totalHits()).isEqualTo(2);
+	}
+	
+	@Test
+	void givenUpdatedAndDeletedPosts_whenSearch_thenReflectLatestWrites() {
+		postSearchIndex.index(3, "Spring boot", "Now related", "just some text");
+		postSearchIndex.delete(1);
+		
+		assertThat(postSearchIndex.search("spring", 0, 10).ids()).containsExactlyInAnyOrder(2l, 3l);
+	}
+	
+	@Test
+	void givenBulkIndexedPosts_whenSearch_thenFindThem() {
+		postSearchIndex.indexAll(List.of(PostEntity.builder().id(4l).title("Bulk import").description("streamed").content("ndjson").build()));
+		
+		assertThat(postSearchIndex.search("ndjson", 0, 10).ids()).containsExactly(4l);
+	}
+	
+	@Test
+	void givenQuerySyntax_whenSearch_thenTreatItAsText() {
+		assertThat(postSearchIndex.search("spring AND (", 0, 10).ids()).contains(1l, 2l);
+	}
+	
+	@Test
+	void givenBlankQueryOrDeepPage_whenSearch_thenThrowException() {
+		assertThrows(BlogApiException.class, () -> postSearchIndex.search(" ", 0, 10));
+		assertThrows(BlogApiException.class, () -> postSearchIndex.search("spring", 1000, 100));
+	}
+	
+	@Test
+	void givenNegativePageOrEmptyPageSize_whenSearch_thenThrowException() {
+		assertThrows(BlogApiException.class, () -> postSearchIndex.search("spring", -1, 10));
+		assertThrows(BlogApiException.class, () -> postSearchIndex.search("spring", 0, 0));
+		assertThrows(BlogApiException.class, () -> postSearchIndex.search("spring", 0, -10));
+	}
+}
@@ -0,0 +1,72 @@
+package com.app.dev.blog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.repository.PostRepository;
+
+class TitleSuggestIndexTest {
+	
+	private TitleSuggestIndex titleSuggestIndex;
+	
+	@BeforeEach
+	void setUp() {
+		titleSuggestIndex = new TitleSuggestIndex(mock(PostRepository.class), mock(PlatformTransactionManager.class));
+		titleSuggestIndex.put(1, "Spring caching");
+		titleSuggestIndex.put(2, "spring boot actuator");
+		titleSuggestIndex.put(3, "Springfield notes");
+		titleSuggestIndex.put(4, "Lucene basics");
+	}
+	
+	@Test
+	void givenPrefix_whenSuggest_thenReturnCaseInsensitiveMatchesInOrder() {
+		assertThat(titleSuggestIndex.suggest("SPRING ", 10)).extracting("id").containsExactly(2l, 1l, 3l);
+	}
+	
+	@Test
+	void givenLimit_whenSuggest_thenStopAtLimit() {
+		assertThat(titleSuggestIndex.suggest("spring", 2)).extracting("id").containsExactly(2l, 1l);
+	}
+	
+	@Test
+	void givenBlankOrUnknownPrefix_whenSuggest_thenReturnNothing() {
+		assertThat(titleSuggestIndex.suggest(" ", 10)).isEmpty();
+		assertThat(titleSuggestIndex.suggest("zzz", 10)).isEmpty();
+	}
+	
+	@Test
+	void givenRenamedAndRemovedPosts_whenSuggest_thenReflectLatestWrites() {
+		titleSuggestIndex.put(4, "Spring search");
+		titleSuggestIndex.remove(3);
+		titleSuggestIndex.putAll(List.of(PostEntity.builder().id(5l).title("Springs of code").build()));
+		
+		assertThat(titleSuggestIndex.suggest("spring", 10)).extracting("title")
+			.containsExactly("spring boot actuator", "Spring caching", "Spring search", "Springs of code");
+		assertThat(titleSuggestIndex.suggest("lucene", 10)).isEmpty();
+	}
+	
+	@Test
+	void givenConcurrentRenamesAndRemovals_whenSuggest_thenLeaveNoOrphanedTitles() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for(int i = 0; i < 10_000; i++) {
+			String title = "Zeta draft " + i;
+			executor.execute(i % 3 == 0 ? () -> titleSuggestIndex.remove(9) : () -> titleSuggestIndex.put(9, title));
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		
+		titleSuggestIndex.remove(9);
+		
+		assertThat(titleSuggestIndex.suggest("zeta", 10)).isEmpty();
+	}
+}
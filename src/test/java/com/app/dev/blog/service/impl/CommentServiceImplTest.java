@@ -5,16 +5,21 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.hibernate.validator.internal.engine.path.PathImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,7 +28,16 @@ import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentCursorPageDto;
 import com.app.dev.blog.dtos.CommentDto;
 import com.app.dev.blog.dtos.CommentUpdateDto;
 import com.app.dev.blog.exception.BlogApiException;
@@ -31,8 +45,13 @@ import com.app.dev.blog.exception.ResourceNotFoundException;
 import com.app.dev.blog.mapper.CommentMapper;
 import com.app.dev.blog.model.CommentEntity;
 import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.VersionView;
 import com.app.dev.blog.repository.CommentRepository;
 import com.app.dev.blog.repository.PostRepository;
+import com.app.dev.blog.util.CommentConstant;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @ExtendWith(MockitoExtension.class)
 class CommentServiceImplTest {
@@ -46,6 +65,12 @@ class CommentServiceImplTest {
 	@Mock
 	private CommentMapper commentMapper;
 	
+	@Mock
+	private Validator validator;
+	
+	@Mock
+	private PostsVersion postsVersion;
+	
 	@InjectMocks
 	private CommentServiceImpl commentService;
 	
@@ -94,7 +119,8 @@ class CommentServiceImplTest {
 	@Test
 	void givenValidPostIdComment_whenCreateComment_thenReturnComment() {
 		long postId = 1;
-		given(postRepository.findById(anyLong())).willReturn(Optional.ofNullable(postEntity));
+		given(postRepository.adjustCommentCount(postId, 1)).willReturn(1);
+		given(postRepository.getReferenceById(postId)).willReturn(postEntity);
 		given(commentMapper.convertCommentDtoToEntity(any(CommentDto.class))).willReturn(new CommentEntity());
 		given(commentRepository.save(any(CommentEntity.class))).willReturn(commentEntity);
 		given(commentMapper.convertCommentEntityToDto(any(CommentEntity.class))).willReturn(commentDto);
@@ -102,12 +128,14 @@ class CommentServiceImplTest {
 		CommentDto savedComment = commentService.createComment(postId, commentDto);
 		
 		assertThat(savedComment).isNotNull();
+		verify(postRepository, never()).findById(anyLong());
+		verify(postsVersion).bump();
 	}
 	
 	@Test
 	void givenInvalidPostIdComment_whenCreateComment_thenThrowException() {
 		long postId = 0;
-		given(postRepository.findById(anyLong())).willReturn(Optional.empty());
+		given(postRepository.adjustCommentCount(postId, 1)).willReturn(0);
 		
 		assertThrows(ResourceNotFoundException.class, () -> commentService.createComment(postId, commentDto));
 		
@@ -117,19 +145,15 @@ class CommentServiceImplTest {
 	@Test
 	void givenInvalidPostId_whenGetCommentsByPostId_thenThrowException() {
 		long postId = 0;
-		//given(commentRepository.existsByPostEntity_Id(anyLong())).willReturn(false);
-		this.mockCommentExistsByPostId(postId, false);
+		given(commentRepository.findByPostEntity_Id(postId)).willReturn(List.of());
 		assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentsByPostId(postId));
 		
-		verify(commentRepository, times(1)).existsByPostEntity_Id(anyLong());
-		verify(commentRepository, never()).findByPostEntity_Id(anyLong());
+		verify(commentMapper, never()).convertCommentEntityListToDtoList(anyList());
 	}
 	
 	@Test
 	void givenValidPostId_whenGetCommentsByPostId_thenReturnAllComments() {
 		long postId = 1;
-		//given(commentRepository.existsByPostEntity_Id(anyLong())).willReturn(true);
-		this.mockCommentExistsByPostId(postId, true);
 		given(commentRepository.findByPostEntity_Id(postId)).willReturn(List.of(commentEntity));
 		given(commentMapper.convertCommentEntityListToDtoList(anyList())).willReturn(List.of(commentDto));
 		
@@ -138,26 +162,88 @@ class CommentServiceImplTest {
 		assertThat(comments).isNotEmpty().hasSize(1);
 	}
 	
+	@Test
+	void givenLimitAndNoCursor_whenGetCommentsAfter_thenReturnFirstPageWithCursor() {
+		long postId = 1;
+		given(commentRepository.findByPostEntity_IdAndIdGreaterThan(eq(postId), eq(0l), any(Pageable.class)))
+			.willReturn(new SliceImpl<>(List.of(commentEntity), PageRequest.of(0, 1), true));
+		given(commentMapper.convertCommentEntityListToDtoList(anyList())).willReturn(List.of(commentDto));
+		
+		CommentCursorPageDto page = commentService.getCommentsAfter(postId, null, 1);
+		
+		assertThat(page.getContent()).hasSize(1);
+		assertThat(page.isLast()).isFalse();
+		assertThat(page.getNextCursor()).isNotNull();
+		verify(postRepository, never()).existsById(anyLong());
+		
+		given(commentRepository.findByPostEntity_IdAndIdGreaterThan(eq(postId), eq(commentEntity.getId()), any(Pageable.class)))
+			.willReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+		
+		CommentCursorPageDto next = commentService.getCommentsAfter(postId, page.getNextCursor(), 1);
+		
+		assertThat(next.isLast()).isTrue();
+		assertThat(next.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void givenInvalidPostId_whenGetCommentsAfter_thenThrowException() {
+		long postId = 0;
+		given(commentRepository.findByPostEntity_IdAndIdGreaterThan(eq(postId), eq(0l), any(Pageable.class)))
+			.willReturn(new SliceImpl<>(List.of()));
+		this.mockPostExistsById(postId, false);
+		
+		assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentsAfter(postId, null, 10));
+	}
+	
+	@Test
+	void givenLimitOutOfRange_whenGetCommentsAfter_thenThrowException() {
+		assertThrows(BlogApiException.class, () -> commentService.getCommentsAfter(1, null, CommentConstant.MAX_PAGE_SIZE + 1));
+		
+		verify(commentRepository, never()).findByPostEntity_IdAndIdGreaterThan(anyLong(), anyLong(), any(Pageable.class));
+	}
+	
+	@Test
+	void givenNoComments_whenGetCommentsETag_thenThrowException() {
+		long postId = 0;
+		given(commentRepository.findVersionsByPostEntity_IdOrderByIdAsc(postId)).willReturn(List.of());
+		
+		assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentsETag(postId));
+	}
+	
+	@Test
+	void givenComments_whenGetCommentsETag_thenTagChangesWithVersion() {
+		long postId = 1;
+		ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+		given(commentRepository.findVersionsByPostEntity_IdOrderByIdAsc(postId))
+			.willReturn(List.of(projectionFactory.createProjection(VersionView.class, Map.of("id", 1L, "version", 0L))))
+			.willReturn(List.of(projectionFactory.createProjection(VersionView.class, Map.of("id", 1L, "version", 1L))));
+		
+		String before = commentService.getCommentsETag(postId);
+		String after = commentService.getCommentsETag(postId);
+		
+		assertThat(before).isNotEqualTo(after);
+		verify(commentRepository, never()).findByPostEntity_Id(anyLong());
+	}
+	
 	@Test
 	void givenInvalidPostId_whenGetCommentById_theThrowException() {
 		long postId = 0;
 		long commentId = 0;
-		//given(postRepository.existsById(anyLong())).willReturn(false);
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, false);
 		
 		assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentById(postId, commentId));
 		
-		verify(commentRepository, never()).findById(anyLong());
+		verify(commentRepository, never()).existsById(anyLong());
 	}
 	
 	@Test
 	void givenValidPostIdInvalidCommentId_whenGetCommentById_theThrowException() {
 		long postId = 0;
 		long commentId = 0;
-		//given(postRepository.existsById(anyLong())).willReturn(true);
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, true);
-		//given(commentRepository.findById(anyLong())).willReturn(Optional.empty());
-		this.mockFindByCommentId(commentId, Optional.empty());
+		this.mockCommentExistsById(commentId, false);
 		
 		assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentById(postId, commentId));
 	}
@@ -166,10 +252,9 @@ class CommentServiceImplTest {
 	void givenValidPostIdValidCommentIdNotBelongsToPost_whenGetCommentById_theThrowException() {
 		long postId = 2;
 		long commentId = 1;
-		//given(postRepository.existsById(anyLong())).willReturn(true);
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, true);
-		//given(commentRepository.findById(anyLong())).willReturn(Optional.ofNullable(commentEntity));
-		this.mockFindByCommentId(commentId, Optional.ofNullable(commentEntity));
+		this.mockCommentExistsById(commentId, true);
 		
 		assertThrows(BlogApiException.class, () -> commentService.getCommentById(postId, commentId));
 	}
@@ -178,22 +263,21 @@ class CommentServiceImplTest {
 	void givenValidPostIdValidCommentIdBelongsToPost_whenGetCommentById_thenThrowException() {
 		long postId = 1;
 		long commentId = 1;
-		//given(postRepository.existsById(anyLong())).willReturn(true);
-		this.mockPostExistsById(postId, true);
-		//given(commentRepository.findById(anyLong())).willReturn(Optional.ofNullable(commentEntity));
-		this.mockFindByCommentId(commentId, Optional.ofNullable(commentEntity));
+		this.mockFindOwnedComment(postId, commentId, Optional.ofNullable(commentEntity));
 		given(commentMapper.convertCommentEntityToDto(any(CommentEntity.class))).willReturn(commentDto);
 		
 		CommentDto commentById = commentService.getCommentById(postId, commentId);
 		
 		assertThat(commentById).isNotNull();
+		verify(postRepository, never()).existsById(anyLong());
+		verify(commentRepository, never()).findById(anyLong());
 	}
 	
 	@Test
 	void givenInvalidPostId_whenUpdateComment_thenThrowException() {
 		long postId = 0;
 		long commentId = 1;
-		//given(postRepository.existsById(anyLong())).willReturn(false);
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, false);
 		
 		Executable methodCall = () -> commentService.updateComment(postId, commentId, this.createCommentUpdateDto());
@@ -204,10 +288,9 @@ class CommentServiceImplTest {
 	void givenValidPostIdInvalidCommentId_whenUpdateComment_thenThrowException() {
 		long postId = 1;
 		long commentId = 0;
-		//given(postRepository.existsById(anyLong())).willReturn(true);
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, true);
-		//given(commentRepository.findById(commentId)).willReturn(Optional.empty());
-		this.mockFindByCommentId(commentId, Optional.empty());
+		this.mockCommentExistsById(commentId, false);
 		
 		Executable methodCall = () -> commentService.updateComment(postId, commentId, this.createCommentUpdateDto());
 		assertThrows(ResourceNotFoundException.class, methodCall);
@@ -217,10 +300,9 @@ class CommentServiceImplTest {
 	void givenCommentIdNotBelongsToPostId_whenUpdateComment_thenThrowException() {
 		long postId = 2;
 		long commentId = 1;
-		//given(postRepository.existsById(anyLong())).willReturn(true);
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, true);
-		//given(commentRepository.findById(anyLong())).willReturn(Optional.ofNullable(commentEntity));
-		this.mockFindByCommentId(commentId, Optional.ofNullable(commentEntity));
+		this.mockCommentExistsById(commentId, true);
 		
 		Executable methodCall = () -> commentService.updateComment(postId, commentId, this.createCommentUpdateDto());
 		assertThrows(BlogApiException.class, methodCall);
@@ -243,11 +325,8 @@ class CommentServiceImplTest {
 				.email("test@email.com")
 				.body("Updated Test body").build();
 		
-		//given(postRepository.existsById(anyLong())).willReturn(true);
-		this.mockPostExistsById(postId, true);
-		//given(commentRepository.findById(anyLong())).willReturn(Optional.ofNullable(commentEntity));
-		this.mockFindByCommentId(commentId, Optional.ofNullable(commentEntity));
-		given(commentRepository.save(any(CommentEntity.class))).willReturn(updatedCommentEntity);
+		this.mockFindOwnedComment(postId, commentId, Optional.ofNullable(commentEntity));
+		given(commentRepository.saveAndFlush(any(CommentEntity.class))).willReturn(updatedCommentEntity);
 		//given(commentMapper.convertCommentEntityToDto(any(CommentEntity.class))).willReturn(commentDtoRequest);
 		this.mockCommentMapperToDto(updatedCommentEntity, commentDtoResponse);
 		
@@ -262,6 +341,7 @@ class CommentServiceImplTest {
 	void givenInvalidPost_whenDeleteCommetById_thenThrowException() {
 		long postId = 0;
 		long commentId = 0;
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, false);
 		
 		assertThrows(ResourceNotFoundException.class, () -> commentService.deleteCommetById(postId, commentId));
@@ -272,8 +352,9 @@ class CommentServiceImplTest {
 		long postId = 1;
 		long commentId = 0;
 		
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, true);
-		this.mockFindByCommentId(commentId, Optional.empty());
+		this.mockCommentExistsById(commentId, false);
 		
 		assertThrows(ResourceNotFoundException.class, () -> commentService.deleteCommetById(postId, commentId));
 	}
@@ -283,8 +364,9 @@ class CommentServiceImplTest {
 		long postId = 2;
 		long commentId = 1;
 		
+		this.mockFindOwnedComment(postId, commentId, Optional.empty());
 		this.mockPostExistsById(postId, true);
-		this.mockFindByCommentId(commentId, Optional.ofNullable(commentEntity));
+		this.mockCommentExistsById(commentId, true);
 		
 		assertThrows(BlogApiException.class, () -> commentService.deleteCommetById(postId, commentId));
 	}
@@ -294,25 +376,87 @@ class CommentServiceImplTest {
 		long postId = 1;
 		long commentId = 1;
 		
-		this.mockPostExistsById(postId, true);
-		this.mockFindByCommentId(commentId, Optional.ofNullable(commentEntity));
+		this.mockFindOwnedComment(postId, commentId, Optional.ofNullable(commentEntity));
 		BDDMockito.willDoNothing().given(commentRepository).delete(commentEntity);
+		given(postRepository.adjustCommentCount(postId, -1)).willReturn(1);
 		
 		commentService.deleteCommetById(postId, commentId);
 		
 		verify(commentRepository, times(1)).delete(commentEntity);
+		verify(postRepository, times(1)).adjustCommentCount(postId, -1);
+	}
+	
+	@Test
+	void givenStaleVersion_whenUpdateComment_thenThrowConflict() {
+		long postId = 1;
+		long commentId = 1;
+		commentEntity.setVersion(2L);
+		CommentUpdateDto commentUpdateDto = this.createCommentUpdateDto();
+		commentUpdateDto.setVersion(1L);
+		
+		this.mockFindOwnedComment(postId, commentId, Optional.ofNullable(commentEntity));
+		
+		assertThrows(ObjectOptimisticLockingFailureException.class, 
+				() -> commentService.updateComment(postId, commentId, commentUpdateDto));
+		
+		verify(commentRepository, never()).saveAndFlush(any(CommentEntity.class));
+	}
+	
+	@Test
+	void givenMixedBatch_whenCreateComments_thenReturnPerItemResults() {
+		long postId = 1;
+		CommentDto invalid = CommentDto.builder().name("").email("test@email.com").body("test body long enough").build();
+		@SuppressWarnings("unchecked")
+		ConstraintViolation<CommentDto> violation = mock(ConstraintViolation.class);
+		given(violation.getPropertyPath()).willReturn(PathImpl.createPathFromString("name"));
+		given(violation.getMessage()).willReturn("Name should not be empty or null");
+		
+		this.mockPostExistsById(postId, true);
+		given(postRepository.getReferenceById(postId)).willReturn(postEntity);
+		given(validator.validate(commentDto)).willReturn(Set.of());
+		given(validator.validate(invalid)).willReturn(Set.of(violation));
+		given(commentMapper.convertCommentDtoToEntity(commentDto)).willReturn(new CommentEntity());
+		given(commentRepository.saveAll(anyList())).willReturn(List.of(commentEntity));
+		given(postRepository.adjustCommentCount(postId, 1)).willReturn(1);
+		
+		List<BulkItemResultDto> results = commentService.createComments(postId, List.of(commentDto, invalid));
+		
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0).getStatus()).isEqualTo(BulkItemResultDto.Status.CREATED);
+		assertThat(results.get(0).getId()).isEqualTo(commentEntity.getId());
+		assertThat(results.get(1).getStatus()).isEqualTo(BulkItemResultDto.Status.FAILED);
+		assertThat(results.get(1).getErrors()).containsEntry("name", "Name should not be empty or null");
+	}
+	
+	@Test
+	void givenInvalidPostId_whenCreateComments_thenThrowException() {
+		long postId = 0;
+		this.mockPostExistsById(postId, false);
+		
+		assertThrows(ResourceNotFoundException.class, () -> commentService.createComments(postId, List.of(commentDto)));
+		
+		verify(commentRepository, never()).saveAll(anyList());
+	}
+	
+	@Test
+	void givenOversizedBatch_whenCreateComments_thenThrowException() {
+		List<CommentDto> batch = Collections.nCopies(CommentConstant.MAX_BATCH_SIZE + 1, commentDto);
+		
+		assertThrows(BlogApiException.class, () -> commentService.createComments(1, batch));
+		
+		verify(commentRepository, never()).saveAll(anyList());
 	}
 	
 	private void mockPostExistsById(long postId, boolean value) {
 		given(postRepository.existsById(postId)).willReturn(value);
 	}
 	
-	private void mockCommentExistsByPostId(long postId, boolean value) {
-		given(commentRepository.existsByPostEntity_Id(postId)).willReturn(value);
+	private void mockCommentExistsById(long commentId, boolean value) {
+		given(commentRepository.existsById(commentId)).willReturn(value);
 	}
 	
-	private void mockFindByCommentId(long commentId, Optional<CommentEntity> optionalCommentEntity) {
-		given(commentRepository.findById(commentId)).willReturn(optionalCommentEntity);
+	private void mockFindOwnedComment(long postId, long commentId, Optional<CommentEntity> optionalCommentEntity) {
+		given(commentRepository.findByIdAndPostEntity_Id(commentId, postId)).willReturn(optionalCommentEntity);
 	}
 	
 	private void mockCommentMapperToDto(CommentEntity commentEntity, CommentDto commentDto) {
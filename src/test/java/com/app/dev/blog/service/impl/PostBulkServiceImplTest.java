@@ -0,0 +1,245 @@
+package com.app.dev.blog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.dtos.BulkImportSummaryDto;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.dtos.PostExportDto;
+import com.app.dev.blog.mapper.PostMapper;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostCommentView;
+import com.app.dev.blog.projection.PostView;
+import com.app.dev.blog.repository.PostRepository;
+import com.app.dev.blog.search.PostSearchIndex;
+import com.app.dev.blog.search.TitleSuggestIndex;
+import com.app.dev.blog.util.PostConstant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+class PostBulkServiceImplTest {
+	
+	@Mock
+	private PostRepository postRepository;
+	
+	@Mock
+	private PostMapper postMapper;
+	
+	@Mock
+	private EntityManager entityManager;
+	
+	@Mock
+	private PostCountCache postCountCache;
+	
+	@Mock
+	private PostsVersion postsVersion;
+	
+	@Mock
+	private PostSearchIndex postSearchIndex;
+	
+	@Mock
+	private TitleSuggestIndex titleSuggestIndex;
+	
+	private PostBulkServiceImpl postBulkService;
+	
+	private static final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+	
+	@BeforeEach
+	void setUp() {
+		postBulkService = new PostBulkServiceImpl(postRepository, postMapper, new ObjectMapper(),
+				Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class),
+				entityManager, postCountCache, postsVersion, postSearchIndex, titleSuggestIndex);
+	}
+	
+	@Test
+	void givenValidNdjson_whenImportPosts_thenSaveChunkAndReturnSummary() throws IOException {
+		given(postRepository.findExistingTitles(anyCollection())).willReturn(List.of());
+		given(postMapper.convertPostDtoToEntity(any(PostDto.class))).willReturn(new PostEntity());
+		
+		BulkImportSummaryDto summary = postBulkService.importPosts(ndjson(
+				line("first title"), "", line("second title")));
+		
+		assertThat(summary.getTotal()).isEqualTo(2);
+		assertThat(summary.getCreated()).isEqualTo(2);
+		assertThat(summary.getFailures()).isEmpty();
+		verify(postRepository).saveAll(anyList());
+		verify(postSearchIndex).indexAll(anyList());
+		verify(titleSuggestIndex).putAll(anyList());
+		verify(postsVersion).bump();
+		verify(postCountCache).refresh();
+	}
+	
+	@Test
+	void givenMalformedAndInvalidLines_whenImportPosts_thenReportLineNumbers() throws IOException {
+		BulkImportSummaryDto summary = postBulkService.importPosts(ndjson(
+				"{\"title\": ", 
+				"{\"title\":\"t\",\"description\":\"short\",\"content\":\"test content\"}"));
+		
+		assertThat(summary.getTotal()).isEqualTo(2);
+		assertThat(summary.getCreated()).isZero();
+		assertThat(summary.getFailures()).hasSize(2);
+		assertThat(summary.getFailures().get(0).getIndex()).isEqualTo(1);
+		assertThat(summary.getFailures().get(0).getErrors()).containsKey("line");
+		assertThat(summary.getFailures().get(1).getIndex()).isEqualTo(2);
+		assertThat(summary.getFailures().get(1).getErrors()).containsKeys("title", "description");
+		verify(postRepository, never()).saveAll(anyList());
+		verify(postCountCache, never()).refresh();
+	}
+	
+	@Test
+	void givenDuplicateTitles_whenImportPosts_thenRejectDuplicatesBeforeSaving() throws IOException {
+		given(postRepository.findExistingTitles(anyCollection())).willReturn(List.of("existing title"));
+		given(postMapper.convertPostDtoToEntity(any(PostDto.class))).willReturn(new PostEntity());
+		
+		BulkImportSummaryDto summary = postBulkService.importPosts(ndjson(
+				line("existing title"), line("new title"), line("new title")));
+		
+		assertThat(summary.getCreated()).isEqualTo(1);
+		assertThat(summary.getFailed()).isEqualTo(2);
+		assertThat(summary.getFailures()).extracting("index").containsExactly(1, 3);
+	}
+	
+	@Test
+	void givenChunkViolatesUniqueTitle_whenImportPosts_thenRetryRowByRow() throws IOException {
+		PostEntity clashing = PostEntity.builder().title("Clash").build();
+		given(postRepository.findExistingTitles(anyCollection())).willReturn(List.of());
+		given(postMapper.convertPostDtoToEntity(any(PostDto.class)))
+				.willAnswer(invocation -> PostEntity.builder().title(invocation.<PostDto>getArgument(0).getTitle()).build());
+		given(postRepository.saveAll(anyList())).willThrow(new DataIntegrityViolationException("duplicate"));
+		given(postRepository.save(any(PostEntity.class))).willAnswer(invocation -> {
+			PostEntity postEntity = invocation.getArgument(0);
+			if(postEntity.getTitle().equals(clashing.getTitle()))
+				throw new DuplicateKeyException("duplicate");
+			return postEntity;
+		});
+		
+		BulkImportSummaryDto summary = postBulkService.importPosts(ndjson(line("fine title"), line("Clash")));
+		
+		assertThat(summary.getCreated()).isEqualTo(1);
+		assertThat(summary.getFailures()).extracting("index").containsExactly(2);
+		verify(postRepository, times(2)).save(any(PostEntity.class));
+	}
+	
+	@Test
+	void givenRowTooLong_whenImportPosts_thenReportDatabaseErrorNotDuplicate() throws IOException {
+		given(postRepository.findExistingTitles(anyCollection())).willReturn(List.of());
+		given(postMapper.convertPostDtoToEntity(any(PostDto.class))).willReturn(new PostEntity());
+		given(postRepository.saveAll(anyList())).willThrow(new DataIntegrityViolationException("too long"));
+		given(postRepository.save(any(PostEntity.class))).willThrow(new DataIntegrityViolationException("could not execute statement",
+				new SQLException("Data too long for column 'content' at row 1", "22001", 1406)));
+		
+		BulkImportSummaryDto summary = postBulkService.importPosts(ndjson(line("long title")));
+		
+		assertThat(summary.getFailed()).isEqualTo(1);
+		assertThat(summary.getFailures().get(0).getErrors())
+				.doesNotContainKey("title")
+				.containsEntry("line", "Rejected by the database: Data too long for column 'content' at row 1");
+	}
+	
+	@Test
+	void givenMoreBadLinesThanTheCap_whenImportPosts_thenCountAllButKeepCappedDetails() throws IOException {
+		String[] lines = new String[PostConstant.MAX_IMPORT_FAILURES + 5];
+		Arrays.fill(lines, "{\"title\": ");
+		
+		BulkImportSummaryDto summary = postBulkService.importPosts(ndjson(lines));
+		
+		assertThat(summary.getFailed()).isEqualTo(PostConstant.MAX_IMPORT_FAILURES + 5);
+		assertThat(summary.getFailures()).hasSize(PostConstant.MAX_IMPORT_FAILURES);
+	}
+	
+	@Test
+	void givenPosts_whenExportPosts_thenWriteOnePostPerLine() throws IOException {
+		PostView first = postView(1l, "first title");
+		PostView second = postView(2l, "second title");
+		given(postRepository.streamAllForExport()).willReturn(Stream.of(first, second));
+		given(postMapper.convertPostViewToDto(any(PostView.class))).willAnswer(invocation -> {
+			PostView postView = invocation.getArgument(0);
+			return PostDto.builder().id(postView.getId()).title(postView.getTitle()).build();
+		});
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		postBulkService.exportPosts(false, outputStream);
+		
+		String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).contains("\"id\":1", "\"title\":\"first title\"");
+		assertThat(lines[1]).contains("\"id\":2");
+		verify(postRepository, never()).streamAllWithCommentsForExport();
+	}
+	
+	@Test
+	void givenPostCommentRows_whenExportPostsWithComments_thenGroupCommentsPerPost() throws IOException {
+		given(postRepository.streamAllWithCommentsForExport()).willReturn(Stream.of(
+				postCommentView(1l, 10l), postCommentView(1l, 11l), postCommentView(2l, null)));
+		given(postMapper.convertPostViewToExportDto(any(PostView.class))).willAnswer(invocation -> 
+				new PostExportDto(invocation.<PostView>getArgument(0).getId(), null, null, null, 0l, 0l, new ArrayList<>()));
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		postBulkService.exportPosts(true, outputStream);
+		
+		List<PostExportDto> posts = new ObjectMapper().readerFor(PostExportDto.class)
+				.<PostExportDto>readValues(outputStream.toByteArray()).readAll();
+		assertThat(posts).hasSize(2);
+		assertThat(posts.get(0).getComments()).extracting("id").containsExactly(10l, 11l);
+		assertThat(posts.get(1).getComments()).isEmpty();
+	}
+	
+	private static PostView postView(Long id, String title) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		row.put("title", title);
+		return projectionFactory.createProjection(PostView.class, row);
+	}
+	
+	private static PostCommentView postCommentView(Long postId, Long commentId) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", postId);
+		row.put("commentId", commentId);
+		row.put("commentBody", commentId == null ? null : "test body");
+		return projectionFactory.createProjection(PostCommentView.class, row);
+	}
+	
+	private static String line(String title) {
+		return "{\"title\":\"" + title + "\",\"description\":\"test description\",\"content\":\"test content\"}";
+	}
+	
+	private static InputStream ndjson(String... lines) {
+		return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+}
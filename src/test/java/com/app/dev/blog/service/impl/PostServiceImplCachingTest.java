@@ -0,0 +1,156 @@
+package com.app.dev.blog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.config.CacheConfig;
+import com.app.dev.blog.dtos.PostDto;
+import com.app.dev.blog.mapper.PostMapper;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostView;
+import com.app.dev.blog.repository.PostRepository;
+import com.app.dev.blog.search.PostSearchIndex;
+import com.app.dev.blog.search.TitleSuggestIndex;
+import com.app.dev.blog.service.PostService;
+
+@SpringBootTest(classes = {PostServiceImpl.class, PostsVersion.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class PostServiceImplCachingTest {
+	
+	@MockBean
+	private PostRepository postRepository;
+	
+	@MockBean
+	private PostMapper postMapper;
+	
+	@MockBean
+	private PostCountCache postCountCache;
+	
+	@MockBean
+	private PostSearchIndex postSearchIndex;
+	
+	@MockBean
+	private TitleSuggestIndex titleSuggestIndex;
+	
+	@Autowired
+	private PostService postService;
+	
+	@Autowired
+	private CacheManager cacheManager;
+	
+	private PostEntity postEntity;
+	
+	private PostDto postDto;
+	
+	private PostView postView;
+	
+	@BeforeEach
+	void setup() {
+		cacheManager.getCache(CacheConfig.POST_CACHE).clear();
+		cacheManager.getCache(CacheConfig.POST_PAGE_CACHE).clear();
+		
+		postEntity = PostEntity.builder()
+							   .id(1l)
+							   .title("test title")
+							   .description("test description")
+							   .content("test content").build();
+		postDto = PostDto.builder()
+						 .id(1l)
+						 .title("test title")
+						 .description("test description")
+						 .content("test content").build();
+		
+		postView = new SpelAwareProxyProjectionFactory().createProjection(PostView.class, postEntity);
+		given(postRepository.findProjectedById(anyLong())).willReturn(Optional.of(postView));
+		given(postMapper.convertPostViewToDto(any(PostView.class))).willReturn(postDto);
+	}
+	
+	@Test
+	void givenCachedPost_whenGetPostById_thenSkipRepository() {
+		postService.getPostById(1);
+		PostDto cached = postService.getPostById(1);
+		
+		assertThat(cached).isEqualTo(postDto);
+		verify(postRepository, times(1)).findProjectedById(1);
+	}
+	
+	@Test
+	void givenCachedPost_whenUpdatePost_thenRefreshEntry() {
+		PostDto updated = PostDto.builder()
+								 .id(1l)
+								 .title("test title updated")
+								 .description("test description updated")
+								 .content("test content updated").build();
+		given(postRepository.findById(anyLong())).willReturn(Optional.of(postEntity));
+		given(postRepository.saveAndFlush(any(PostEntity.class))).willReturn(postEntity);
+		given(postMapper.convertPostEntityToDto(any(PostEntity.class))).willReturn(updated);
+		
+		postService.getPostById(1);
+		postService.updatePost(1, updated);
+		
+		assertThat(postService.getPostById(1)).isEqualTo(updated);
+		verify(postRepository, times(1)).findProjectedById(1);
+	}
+	
+	@Test
+	void givenCachedPost_whenDeletePost_thenEvictEntry() {
+		given(postRepository.findById(anyLong())).willReturn(Optional.of(postEntity));
+		
+		postService.getPostById(1);
+		postService.deletePostById(1);
+		postService.getPostById(1);
+		
+		verify(postRepository, times(2)).findProjectedById(1);
+	}
+	
+	@Test
+	void givenCachedPage_whenGetAllPosts_thenSkipRepository() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(new SliceImpl<>(List.of(postView), pageable, false));
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(List.of(postDto));
+		
+		postService.getAllPosts(0, 10, "id", "asc");
+		postService.getAllPosts(0, 10, "id", "ASC");
+		
+		verify(postRepository, times(1)).findAllProjectedBy(pageable);
+	}
+	
+	@Test
+	void givenCachedPage_whenCreatePost_thenNextListingMisses() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(new SliceImpl<>(List.of(postView), pageable, false));
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(List.of(postDto));
+		given(postMapper.convertPostDtoToEntity(any(PostDto.class))).willReturn(postEntity);
+		given(postRepository.save(any(PostEntity.class))).willReturn(postEntity);
+		
+		postService.getAllPosts(0, 10, "id", "asc");
+		postService.createPost(postDto);
+		postService.getAllPosts(0, 10, "id", "asc");
+		
+		verify(postRepository, times(2)).findAllProjectedBy(pageable);
+	}
+}
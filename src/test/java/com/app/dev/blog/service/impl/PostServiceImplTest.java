@@ -6,17 +6,22 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,18 +29,39 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.cache.PostsVersion;
+import com.app.dev.blog.dtos.PostCursorPageDto;
 import com.app.dev.blog.dtos.PostDto;
 import com.app.dev.blog.dtos.PostPageDto;
+import com.app.dev.blog.dtos.PostSliceDto;
+import com.app.dev.blog.dtos.PostSuggestionDto;
+import com.app.dev.blog.exception.BlogApiException;
 import com.app.dev.blog.exception.ResourceNotFoundException;
 import com.app.dev.blog.mapper.PostMapper;
 import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.projection.PostVersionView;
+import com.app.dev.blog.projection.PostView;
 import com.app.dev.blog.repository.PostRepository;
+import com.app.dev.blog.search.PostSearchHits;
+import com.app.dev.blog.search.PostSearchIndex;
+import com.app.dev.blog.search.TitleSuggestIndex;
+import com.app.dev.blog.util.PostConstant;
+import com.app.dev.blog.util.CursorCodec;
 
 @ExtendWith(MockitoExtension.class)
 class PostServiceImplTest {
@@ -46,13 +72,29 @@ class PostServiceImplTest {
 	@Mock
 	private PostMapper postMapper;
 	
+	@Mock
+	private PostCountCache postCountCache;
+	
+	@Mock
+	private PostsVersion postsVersion;
+	
+	@Mock
+	private PostSearchIndex postSearchIndex;
+	
+	@Mock
+	private TitleSuggestIndex titleSuggestIndex;
+	
 	@InjectMocks
 	private PostServiceImpl postService;
 	
 	private PostEntity postEntity;
 	
+	private PostView postView;
+	
 	private PostDto postDto;
 	
+	private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+	
 	@BeforeEach
 	public void setup() {
 		postEntity = PostEntity.builder()
@@ -60,6 +102,7 @@ class PostServiceImplTest {
 							   .title("test title")
 							   .description("test description")
 							   .content("test content").build();
+		postView = projectionFactory.createProjection(PostView.class, postEntity);
 		postDto = PostDto.builder()
 						 .id(1l)
 						 .title("test title")
@@ -80,6 +123,9 @@ class PostServiceImplTest {
 		assertThat(createdPost).isNotNull();
 		
 		assertEquals(postDto, createdPost);
+		
+		verify(postSearchIndex).index(postEntity.getId(), postEntity.getTitle(), postEntity.getDescription(), postEntity.getContent());
+		verify(titleSuggestIndex).put(postEntity.getId(), postEntity.getTitle());
 	}
 	
 	@Test
@@ -89,13 +135,15 @@ class PostServiceImplTest {
 		String sortBy = "title";
 		String sortDir = Sort.Direction.ASC.name();
 		
-		given(postRepository.count()).willReturn(0L);
+		Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(sortBy).ascending());
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(new SliceImpl<>(List.of(), pageable, false));
 		
 		PostPageDto postPageDto = postService.getAllPosts(pageNo, pageSize, sortBy, sortDir);
 		
 		assertThat(postPageDto.getContent()).isEmpty();
+		assertThat(postPageDto.getTotalElements()).isZero();
 		
-		verify(postRepository, never()).findAll(any(Pageable.class));
+		verify(postCountCache, never()).get();
 	}
 	
 	@Test
@@ -117,7 +165,7 @@ class PostServiceImplTest {
 				   				  .description("ztest description")
 				   				  .content("ztest content").build();
 		
-		List<PostEntity> content = List.of(postEntity, postEntity2);
+		List<PostView> content = List.of(postView, projectionFactory.createProjection(PostView.class, postEntity2));
 		
 		int totalElements = content.size();
 		
@@ -125,11 +173,10 @@ class PostServiceImplTest {
 		
 		Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(sortBy).ascending());
 		
-		Page<PostEntity> page = new PageImpl<>(content, pageable, totalElements);
+		Slice<PostView> slice = new SliceImpl<>(content, pageable, false);
 		
-		given(postRepository.count()).willReturn(Long.valueOf(totalElements));
-		given(postRepository.findAll(pageable)).willReturn(page);
-		given(postMapper.convertPosEntitytListToPostDtoList(anyList())).willReturn(postDtos);
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(slice);
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(postDtos);
 		
 		PostPageDto postPageDto = postService.getAllPosts(pageNo, pageSize, sortBy, sortDir);
 		
@@ -158,7 +205,7 @@ class PostServiceImplTest {
 				   				  .description("ztest description")
 				   				  .content("ztest content").build();
 		
-		List<PostEntity> content = List.of(postEntity, postEntity2);
+		List<PostView> content = List.of(postView, projectionFactory.createProjection(PostView.class, postEntity2));
 		
 		int totalElements = content.size();
 		
@@ -166,11 +213,10 @@ class PostServiceImplTest {
 		
 		Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(sortBy).descending());
 		
-		Page<PostEntity> page = new PageImpl<>(content, pageable, totalElements);
+		Slice<PostView> slice = new SliceImpl<>(content, pageable, false);
 		
-		given(postRepository.count()).willReturn(Long.valueOf(totalElements));
-		given(postRepository.findAll(pageable)).willReturn(page);
-		given(postMapper.convertPosEntitytListToPostDtoList(anyList())).willReturn(postDtos);
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(slice);
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(postDtos);
 		
 		PostPageDto postPageDto = postService.getAllPosts(pageNo, pageSize, sortBy, sortDir);
 		
@@ -180,11 +226,98 @@ class PostServiceImplTest {
 		assertThat(postPageDto.getContent().get(0).getTitle()).isEqualTo("ztest title");
 	}
 	
+	@Test
+	void givenFullPage_whenGetAllPosts_thenServeTotalFromCachedCount() {
+		Pageable pageable = PageRequest.of(0, 1, Sort.by("id").ascending());
+		
+		given(postCountCache.get()).willReturn(25L);
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(new SliceImpl<>(List.of(postView), pageable, true));
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(List.of(postDto));
+		
+		PostPageDto postPageDto = postService.getAllPosts(0, 1, "id", "asc");
+		
+		assertThat(postPageDto.getTotalElements()).isEqualTo(25);
+		assertThat(postPageDto.getTotalPages()).isEqualTo(25);
+		assertThat(postPageDto.isLast()).isFalse();
+		verify(postRepository, never()).count();
+	}
+	
+	@Test
+	void givenListOfPosts_whenGetPostSlice_thenReturnSliceWithoutCount() {
+		Pageable pageable = PageRequest.of(0, 1, Sort.by("id").ascending());
+		
+		given(postRepository.findAllProjectedBy(pageable)).willReturn(new SliceImpl<>(List.of(postView), pageable, true));
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(List.of(postDto));
+		
+		PostSliceDto postSliceDto = postService.getPostSlice(0, 1, "id", "asc");
+		
+		assertThat(postSliceDto.getContent()).containsExactly(postDto);
+		assertThat(postSliceDto.isLast()).isFalse();
+		verify(postRepository, never()).count();
+		verify(postCountCache, never()).get();
+	}
+	
+	@Test
+	void givenMorePostsThanPageSize_whenGetPostsAfter_thenReturnNextCursor() {
+		Window<PostView> window = Window.from(List.of(postView), 
+				index -> ScrollPosition.forward(Map.of("title", "test title", "id", 1L)), true);
+		
+		given(postRepository.findBy(any(Specification.class), any(Function.class))).willReturn(window);
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(List.of(postDto));
+		
+		PostCursorPageDto page = postService.getPostsAfter("", 1, "title", "asc");
+		
+		assertThat(page.getContent()).containsExactly(postDto);
+		assertThat(page.isLast()).isFalse();
+		assertThat(CursorCodec.decode(page.getNextCursor(), "title").getKeys())
+					.containsEntry("title", "test title")
+					.containsEntry("id", 1L);
+	}
+	
+	@Test
+	void givenLastWindow_whenGetPostsAfter_thenReturnNoCursor() {
+		String after = CursorCodec.encode("id", ScrollPosition.forward(Map.of("id", 1L)));
+		Window<PostView> window = Window.from(List.of(postView), 
+				index -> ScrollPosition.forward(Map.of("id", 2L)), false);
+		
+		given(postRepository.findBy(any(Specification.class), any(Function.class))).willReturn(window);
+		given(postMapper.convertPostViewListToPostDtoList(anyList())).willReturn(List.of(postDto));
+		
+		PostCursorPageDto page = postService.getPostsAfter(after, 10, "id", "asc");
+		
+		assertThat(page.isLast()).isTrue();
+		assertThat(page.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void givenCursorForOtherSort_whenGetPostsAfter_thenThrowException() {
+		String after = CursorCodec.encode("id", ScrollPosition.forward(Map.of("id", 1L)));
+		
+		assertThrows(BlogApiException.class, () -> postService.getPostsAfter(after, 10, "title", "asc"));
+		
+		verify(postRepository, never()).findBy(any(Specification.class), any(Function.class));
+	}
+	
+	@Test
+	void givenPageSizeOutOfRange_whenGetPostsAfter_thenThrowException() {
+		assertThrows(BlogApiException.class, () -> postService.getPostsAfter("", 0, "id", "asc"));
+		assertThrows(BlogApiException.class, () -> postService.getPostsAfter("", PostConstant.MAX_PAGE_SIZE + 1, "id", "asc"));
+		
+		verify(postRepository, never()).findBy(any(Specification.class), any(Function.class));
+	}
+	
+	@Test
+	void givenUnknownSortProperty_whenGetPostsAfter_thenThrowException() {
+		assertThrows(BlogApiException.class, () -> postService.getPostsAfter("", 10, "password", "asc"));
+		
+		verify(postRepository, never()).findBy(any(Specification.class), any(Function.class));
+	}
+	
 	@Test
 	void givenValidId_whenGetPostById_thenReturnPostDto() {
-		given(postRepository.findById(anyLong())).willReturn(Optional.ofNullable(postEntity));
+		given(postRepository.findProjectedById(anyLong())).willReturn(Optional.ofNullable(postView));
 		
-		given(postMapper.convertPostEntityToDto(any(PostEntity.class))).willReturn(postDto);
+		given(postMapper.convertPostViewToDto(any(PostView.class))).willReturn(postDto);
 		
 		PostDto postById = postService.getPostById(postEntity.getId());
 		
@@ -194,11 +327,28 @@ class PostServiceImplTest {
 	@Test
 	void givenInvalidId_whenGetPostById_thenThrowException() {
 		int id = 0;
-		given(postRepository.findById(anyLong())).willReturn(Optional.empty());
+		given(postRepository.findProjectedById(anyLong())).willReturn(Optional.empty());
 		
 		assertThrows(ResourceNotFoundException.class, () -> postService.getPostById(id));
 	}
 	
+	@Test
+	void givenValidId_whenGetPostETag_thenReturnTagFromVersionColumns() {
+		given(postRepository.findVersionById(1)).willReturn(Optional.of(projectionFactory.createProjection(
+				PostVersionView.class, Map.of("id", 1L, "version", 3L, "commentCount", 2L))));
+		
+		assertThat(postService.getPostETag(1)).isEqualTo("post-1-v3-c2");
+		
+		verify(postRepository, never()).findProjectedById(anyLong());
+	}
+	
+	@Test
+	void givenInvalidId_whenGetPostETag_thenThrowException() {
+		given(postRepository.findVersionById(0)).willReturn(Optional.empty());
+		
+		assertThrows(ResourceNotFoundException.class, () -> postService.getPostETag(0));
+	}
+	
 	@Test
 	void givenValidIdPostDto_whenUpdatePost_thenReturnUpdatedPostDto() {
 		given(postRepository.findById(anyLong())).willReturn(Optional.ofNullable(postEntity));
@@ -210,7 +360,7 @@ class PostServiceImplTest {
 										 .content("test content updated")
 										 .build();
 		
-		given(postRepository.save(any(PostEntity.class))).willReturn(postEntity);
+		given(postRepository.saveAndFlush(any(PostEntity.class))).willReturn(postEntity);
 		
 		given(postMapper.convertPostEntityToDto(any(PostEntity.class))).willReturn(postDtoToUpdate);
 		
@@ -219,6 +369,23 @@ class PostServiceImplTest {
 		assertThat(updatedPost).isNotNull();
 	}
 	
+	@Test
+	void givenStaleVersion_whenUpdatePost_thenThrowConflict() {
+		postEntity.setVersion(2L);
+		given(postRepository.findById(anyLong())).willReturn(Optional.ofNullable(postEntity));
+		
+		PostDto staleDto = PostDto.builder()
+								  .title("test title updated")
+								  .description("test description updated")
+								  .content("test content updated")
+								  .version(1L)
+								  .build();
+		
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> postService.updatePost(1, staleDto));
+		
+		verify(postRepository, never()).saveAndFlush(any(PostEntity.class));
+	}
+	
 	@Test
 	void givenInvalidId_whenUpdatePost_thenThrowException() {
 		given(postRepository.findById(anyLong())).willReturn(Optional.empty());
@@ -229,7 +396,42 @@ class PostServiceImplTest {
 					.hasFieldOrPropertyWithValue("resourceName", "PostEntity")
 					.hasMessage("PostEntity not found with Id : '0'");
 		
-		verify(postRepository, never()).save(any(PostEntity.class));	
+		verify(postRepository, never()).saveAndFlush(any(PostEntity.class));	
+	}
+	
+	@Test
+	void givenSearchHits_whenSearchPosts_thenReturnPostsInRankOrder() {
+		PostView otherView = projectionFactory.createProjection(PostView.class, 
+				PostEntity.builder().id(2l).title("other title").build());
+		given(postSearchIndex.search("title", 0, 10)).willReturn(new PostSearchHits(List.of(2l, 1l, 3l), 3));
+		given(postRepository.findProjectedByIdIn(List.of(2l, 1l, 3l))).willReturn(List.of(postView, otherView));
+		given(postMapper.convertPostViewListToPostDtoList(anyList()))
+			.willAnswer(invocation -> invocation.<List<PostView>>getArgument(0).stream()
+					.map(view -> PostDto.builder().id(view.getId()).build()).toList());
+		
+		PostPageDto postPageDto = postService.searchPosts("title", 0, 10);
+		
+		assertThat(postPageDto.getContent()).extracting("id").containsExactly(2l, 1l);
+		// hit 3 vanished from the database after the search ran
+		assertThat(postPageDto.getTotalElements()).isEqualTo(2);
+		assertThat(postPageDto.isLast()).isTrue();
+	}
+	
+	@Test
+	void givenPrefix_whenSuggestTitles_thenServeFromIndexWithoutDatabase() {
+		given(titleSuggestIndex.suggest("te", 5)).willReturn(List.of(new PostSuggestionDto(1l, "test title")));
+		
+		List<PostSuggestionDto> suggestions = postService.suggestTitles("te", 5);
+		
+		assertThat(suggestions).extracting("title").containsExactly("test title");
+		verifyNoInteractions(postRepository);
+	}
+	
+	@Test
+	void givenLimitOutOfRange_whenSuggestTitles_thenThrowException() {
+		assertThrows(BlogApiException.class, () -> postService.suggestTitles("te", PostConstant.MAX_SUGGEST_LIMIT + 1));
+		
+		verify(titleSuggestIndex, never()).suggest(anyString(), anyInt());
 	}
 	
 	@Test
@@ -242,6 +444,32 @@ class PostServiceImplTest {
 		postService.deletePostById(id);
 		
 		verify(postRepository, times(1)).delete(any(PostEntity.class));
+		verify(postSearchIndex).delete(id);
+		verify(titleSuggestIndex).remove(id);
+	}
+	
+	@Test
+	void givenOpenTransaction_whenDeletePostById_thenDeferSideEffectsUntilCommit() {
+		int id = 1;
+		given(postRepository.findById(anyLong())).willReturn(Optional.ofNullable(postEntity));
+		
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			postService.deletePostById(id);
+			
+			verify(postsVersion, never()).bump();
+			verify(postCountCache, never()).decrement();
+			verifyNoInteractions(postSearchIndex, titleSuggestIndex);
+			
+			TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		
+		verify(postsVersion).bump();
+		verify(postCountCache).decrement();
+		verify(postSearchIndex).delete(id);
+		verify(titleSuggestIndex).remove(id);
 	}
 	
 	@Test
@@ -0,0 +1,114 @@
+package com.app.dev.blog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import com.app.dev.blog.cache.PostCountCache;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.mapper.PostMapper;
+import com.app.dev.blog.model.PostEntity;
+import com.app.dev.blog.repository.ReactivePostRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePostServiceImplTest {
+	
+	@Mock
+	private ReactivePostRepository reactivePostRepository;
+	
+	@Spy
+	private PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+	
+	@Mock
+	private PostCountCache postCountCache;
+	
+	@InjectMocks
+	private ReactivePostServiceImpl reactivePostService;
+	
+	private static Flux<PostEntity> posts(long from, long to) {
+		return Flux.fromStream(LongStream.rangeClosed(from, to).mapToObj(id -> PostEntity.builder()
+				.id(id)
+				.title("Title " + id)
+				.description("Description " + id)
+				.content("Content " + id)
+				.version(0L)
+				.build()));
+	}
+	
+	@Test
+	void givenLastPage_whenGetAllPosts_thenTotalIsTakenFromRowsWithoutCount() {
+		given(reactivePostRepository.findAll(Sort.by("id").ascending(), 6, 5)).willReturn(posts(6, 8));
+		
+		StepVerifier.create(reactivePostService.getAllPosts(1, 5, "id", "asc"))
+					.assertNext(page -> {
+						assertThat(page.getContent()).extracting("id").containsExactly(6L, 7L, 8L);
+						assertThat(page.getTotalElements()).isEqualTo(8);
+						assertThat(page.getTotalPages()).isEqualTo(2);
+						assertThat(page.isLast()).isTrue();
+					})
+					.verifyComplete();
+		verify(postCountCache, never()).get();
+	}
+	
+	@Test
+	void givenMoreRows_whenGetAllPosts_thenLookaheadRowIsDroppedAndCachedCountUsed() {
+		given(reactivePostRepository.findAll(eq(Sort.by("title").descending()), eq(3), anyLong())).willReturn(posts(1, 3));
+		given(postCountCache.get()).willReturn(10L);
+		
+		StepVerifier.create(reactivePostService.getAllPosts(0, 2, "title", "desc"))
+					.assertNext(page -> {
+						assertThat(page.getContent()).hasSize(2);
+						assertThat(page.getTotalElements()).isEqualTo(10);
+						assertThat(page.getTotalPages()).isEqualTo(5);
+						assertThat(page.isLast()).isFalse();
+					})
+					.verifyComplete();
+	}
+	
+	@Test
+	void givenStaleCachedCount_whenGetAllPosts_thenTotalCoversRowsSeen() {
+		given(reactivePostRepository.findAll(any(Sort.class), anyInt(), anyLong())).willReturn(posts(5, 7));
+		given(postCountCache.get()).willReturn(1L);
+		
+		StepVerifier.create(reactivePostService.getAllPosts(2, 2, "id", "asc"))
+					.assertNext(page -> assertThat(page.getTotalElements()).isEqualTo(7))
+					.verifyComplete();
+	}
+	
+	@Test
+	void givenPostId_whenGetPostById_thenReturnPost() {
+		given(reactivePostRepository.findById(3L)).willReturn(posts(3, 3).next());
+		
+		StepVerifier.create(reactivePostService.getPostById(3L))
+					.assertNext(post -> assertThat(post.getTitle()).isEqualTo("Title 3"))
+					.verifyComplete();
+	}
+	
+	@Test
+	void givenMissingPostId_whenGetPostById_thenThrowResourceNotFound() {
+		given(reactivePostRepository.findById(3L)).willReturn(Mono.empty());
+		
+		StepVerifier.create(reactivePostService.getPostById(3L))
+					.verifyError(ResourceNotFoundException.class);
+	}
+}
@@ -0,0 +1,150 @@
+package com.app.dev.blog.wal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+	
+	private static final int SEGMENT_SIZE = 256;
+	
+	@TempDir
+	private Path directory;
+	
+	@Test
+	public void givenCheckpointedRecords_whenReopen_thenReturnOnlyRecordsAboveCheckpoint() throws IOException {
+		// given
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			assertThat(writeAheadLog.open()).isEmpty();
+			for(int i = 1; i <= 3; i++)
+				writeAheadLog.append(payload("record " + i));
+			writeAheadLog.checkpoint(1);
+		}
+		
+		// when
+		List<WalRecord> records;
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			records = writeAheadLog.open();
+			
+			// then - sequences carry on after the recovered records
+			assertThat(writeAheadLog.append(payload("record 4"))).isEqualTo(4);
+		}
+		assertThat(records).extracting(WalRecord::sequence).containsExactly(2L, 3L);
+		assertThat(new String(records.get(0).payload(), StandardCharsets.UTF_8)).isEqualTo("record 2");
+	}
+	
+	@Test
+	public void givenFullSegments_whenCheckpoint_thenDeleteAppliedSegments() throws IOException {
+		// given - 40 byte records, six per 256 byte segment
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			writeAheadLog.open();
+			for(int i = 1; i <= 20; i++)
+				writeAheadLog.append(new byte[40 - WriteAheadLog.HEADER_SIZE]);
+			assertThat(writeAheadLog.segmentCount()).isEqualTo(4);
+			
+			// when
+			writeAheadLog.checkpoint(13);
+			
+			// then
+			assertThat(writeAheadLog.segmentCount()).isEqualTo(2);
+			assertThat(this.segmentNames()).containsExactly("00000000000000000013.wal", "00000000000000000019.wal");
+		}
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			assertThat(writeAheadLog.open()).extracting(WalRecord::sequence).containsExactly(14L, 15L, 16L, 17L, 18L, 19L, 20L);
+		}
+	}
+	
+	@Test
+	public void givenTornLastRecord_whenReopen_thenDiscardItAndAppendInItsPlace() throws IOException {
+		// given - the second record's payload never fully reached the disk
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			writeAheadLog.open();
+			writeAheadLog.append(payload("first"));
+			writeAheadLog.append(payload("second"));
+		}
+		Path segment = directory.resolve("00000000000000000001.wal");
+		byte[] bytes = Files.readAllBytes(segment);
+		int secondPayload = 2 * WriteAheadLog.HEADER_SIZE + "first".length();
+		bytes[secondPayload + 2] = 0;
+		Files.write(segment, bytes);
+		
+		// when
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			List<WalRecord> records = writeAheadLog.open();
+			
+			// then
+			assertThat(records).extracting(WalRecord::sequence).containsExactly(1L);
+			assertThat(writeAheadLog.append(payload("replacement"))).isEqualTo(2);
+		}
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			assertThat(writeAheadLog.open()).extracting(record -> new String(record.payload(), StandardCharsets.UTF_8))
+											.containsExactly("first", "replacement");
+		}
+	}
+	
+	@Test
+	public void givenConcurrentWriters_whenGroupCommit_thenEveryAppendBecomesDurable() throws Exception {
+		// given
+		try(WriteAheadLog writeAheadLog = new WriteAheadLog(directory, 64 * 1024, FsyncPolicy.GROUP, Duration.ZERO)) {
+			writeAheadLog.open();
+			ExecutorService executor = Executors.newFixedThreadPool(8);
+			
+			// when
+			List<Future<Long>> futures = new ArrayList<>();
+			for(int i = 0; i < 200; i++) {
+				futures.add(executor.submit(() -> {
+					long sequence = writeAheadLog.append(payload("comment"));
+					writeAheadLog.awaitDurable(sequence);
+					assertThat(writeAheadLog.durableSequence()).isGreaterThanOrEqualTo(sequence);
+					return sequence;
+				}));
+			}
+			for(Future<Long> future : futures)
+				future.get();
+			executor.shutdown();
+			
+			// then
+			assertThat(writeAheadLog.durableSequence()).isEqualTo(200);
+		}
+	}
+	
+	@Test
+	public void givenRecordLargerThanSegment_whenAppend_thenThrowIllegalArgumentException() throws IOException {
+		try(WriteAheadLog writeAheadLog = this.newLog(FsyncPolicy.ALWAYS)) {
+			writeAheadLog.open();
+			
+			assertThrows(IllegalArgumentException.class, () -> writeAheadLog.append(new byte[SEGMENT_SIZE]));
+		}
+	}
+	
+	private WriteAheadLog newLog(FsyncPolicy fsyncPolicy) {
+		return new WriteAheadLog(directory, SEGMENT_SIZE, fsyncPolicy, Duration.ofMillis(10));
+	}
+	
+	private List<String> segmentNames() throws IOException {
+		try(Stream<Path> files = Files.list(directory)) {
+			return files.map(path -> path.getFileName().toString())
+						.filter(name -> name.endsWith(".wal"))
+						.sorted()
+						.toList();
+		}
+	}
+	
+	private static byte[] payload(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,265 @@
+package com.app.dev.blog.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import com.app.dev.blog.dtos.BulkItemResultDto;
+import com.app.dev.blog.dtos.CommentDto;
+import com.app.dev.blog.dtos.QueuedCommentDto;
+import com.app.dev.blog.exception.ResourceNotFoundException;
+import com.app.dev.blog.exception.WriteQueueClosedException;
+import com.app.dev.blog.exception.WriteQueueFullException;
+import com.app.dev.blog.service.CommentService;
+import com.app.dev.blog.wal.FsyncPolicy;
+import com.app.dev.blog.wal.WriteAheadLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CommentWriteBehindQueueTest {
+	
+	@TempDir
+	private Path directory;
+	
+	@Mock
+	private CommentService commentService;
+	
+	@Captor
+	private ArgumentCaptor<List<CommentDto>> captor;
+	
+	private MeterRegistry meterRegistry;
+	
+	private WriteAheadLog writeAheadLog;
+	
+	private CommentWriteBehindQueue queue;
+	
+	private CommentDto commentDto;
+	
+	@BeforeEach
+	public void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		commentDto = CommentDto.builder().name("name").email("name@mail.com").body("comment body").build();
+	}
+	
+	@AfterEach
+	public void tearDown() throws IOException {
+		if(queue != null && queue.isRunning())
+			queue.stop();
+		if(writeAheadLog != null)
+			writeAheadLog.close();
+	}
+	
+	@Test
+	public void givenQueuedComments_whenDrained_thenWriteOneBatchPerPost() {
+		// given
+		CountDownLatch release = new CountDownLatch(1);
+		willAnswer(invocation -> {
+			release.await();
+			return List.of();
+		}).given(commentService).createComments(eq(1L), anyList());
+		queue = this.newQueue(10);
+		queue.start();
+		
+		// when
+		QueuedCommentDto first = queue.enqueue(1L, commentDto);
+		queue.enqueue(1L, commentDto);
+		queue.enqueue(2L, commentDto);
+		queue.enqueue(2L, commentDto);
+		release.countDown();
+		
+		// then
+		assertThat(first.getProvisionalId()).isNotBlank();
+		assertThat(first.getPostId()).isEqualTo(1L);
+		verify(commentService, timeout(5000)).createComments(eq(2L), captor.capture());
+		assertThat(captor.getValue()).hasSize(2);
+	}
+	
+	@Test
+	public void givenFullQueue_whenEnqueue_thenThrowWriteQueueFullException() {
+		// given - the writer holds the first comment, the second fills the queue
+		CountDownLatch release = new CountDownLatch(1);
+		willAnswer(invocation -> {
+			release.await();
+			return List.of();
+		}).given(commentService).createComments(eq(1L), anyList());
+		queue = this.newQueue(1);
+		queue.start();
+		queue.enqueue(1L, commentDto);
+		verify(commentService, timeout(5000)).createComments(eq(1L), anyList());
+		queue.enqueue(1L, commentDto);
+		
+		try {
+			// when - then
+			assertThrows(WriteQueueFullException.class, () -> queue.enqueue(1L, commentDto));
+			assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "rejected").counter().count()).isEqualTo(1);
+			assertThat(meterRegistry.get("blog.comments.write_behind.depth").gauge().value()).isEqualTo(1);
+		} finally {
+			release.countDown();
+		}
+	}
+	
+	@Test
+	public void givenStoppedQueue_whenEnqueue_thenThrowWriteQueueClosedException() {
+		// given
+		queue = this.newQueue(10);
+		queue.start();
+		queue.stop();
+		
+		// when - then
+		assertThrows(WriteQueueClosedException.class, () -> queue.enqueue(1L, commentDto));
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "rejected").counter().count()).isEqualTo(1);
+	}
+	
+	@Test
+	public void givenWebServerLifecycle_whenGetPhase_thenStartBeforeAndStopAfterIt() {
+		// given - the web server starts and stops one step below graceful shutdown
+		int webServerPhase = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024;
+		queue = this.newQueue(10);
+		
+		// when - then
+		assertThat(queue.getPhase()).isLessThan(webServerPhase);
+	}
+	
+	@Test
+	public void givenLoggedComments_whenStart_thenReplayThem() throws IOException {
+		// given - accepted by a previous run that died before writing them
+		ObjectMapper objectMapper = new ObjectMapper();
+		try(WriteAheadLog writeAheadLog = this.newLog()) {
+			writeAheadLog.open();
+			writeAheadLog.append(objectMapper.writeValueAsBytes(new QueuedComment("provisional-1", 3L, commentDto)));
+			writeAheadLog.append(objectMapper.writeValueAsBytes(new QueuedComment("provisional-2", 3L, commentDto)));
+		}
+		
+		// when
+		queue = this.newQueue(10);
+		queue.start();
+		
+		// then
+		verify(commentService, timeout(5000)).createComments(eq(3L), captor.capture());
+		assertThat(captor.getValue()).hasSize(2);
+	}
+	
+	@Test
+	public void givenDeletedPost_whenDrained_thenDropComments() {
+		// given
+		given(commentService.createComments(eq(4L), anyList())).willThrow(new ResourceNotFoundException("Post", "id", 4L));
+		queue = this.newQueue(10);
+		queue.start();
+		
+		// when
+		queue.enqueue(4L, commentDto);
+		queue.stop();
+		
+		// then
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "dropped").counter().count()).isEqualTo(1);
+		assertThat(queue.depth()).isZero();
+	}
+	
+	@Test
+	public void givenConstraintViolation_whenDrained_thenDropOnlyTheFailingComment() {
+		// given - the long body fails the batch, and then on its own
+		CommentDto poison = CommentDto.builder().name("name").email("name@mail.com").body("x".repeat(300)).build();
+		given(commentService.createComments(eq(5L), anyList())).willAnswer(invocation -> {
+			List<CommentDto> comments = invocation.getArgument(1);
+			if(comments.contains(poison))
+				throw new DataIntegrityViolationException("Data too long for column 'body'");
+			return List.of(BulkItemResultDto.created(0, 1L));
+		});
+		queue = this.newQueue(10);
+		queue.start();
+		
+		// when
+		queue.enqueue(5L, commentDto);
+		queue.enqueue(5L, poison);
+		queue.stop();
+		
+		// then
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "written").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "dropped").counter().count()).isEqualTo(1);
+		assertThat(queue.depth()).isZero();
+	}
+	
+	@Test
+	public void givenTransientFailure_whenDrained_thenRetry() {
+		// given
+		given(commentService.createComments(eq(6L), anyList()))
+			.willThrow(new QueryTimeoutException("Lock wait timeout exceeded"))
+			.willReturn(List.of(BulkItemResultDto.created(0, 1L)));
+		queue = this.newQueue(10);
+		queue.start();
+		
+		// when
+		queue.enqueue(6L, commentDto);
+		queue.stop();
+		
+		// then
+		verify(commentService, times(2)).createComments(eq(6L), anyList());
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "written").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "dropped").counter().count()).isZero();
+	}
+	
+	@Test
+	public void givenFailedItems_whenDrained_thenCountThemAsInvalid() {
+		// given - validated before a constraint changed
+		CommentDto stale = CommentDto.builder().name("name").email("name@mail.com").body("short").build();
+		given(commentService.createComments(eq(7L), anyList())).willAnswer(invocation -> {
+			List<CommentDto> comments = invocation.getArgument(1);
+			return IntStream.range(0, comments.size())
+							.mapToObj(index -> comments.get(index) == stale 
+									? BulkItemResultDto.failed(index, Map.of("body", "too short")) 
+									: BulkItemResultDto.created(index, (long) index))
+							.toList();
+		});
+		queue = this.newQueue(10);
+		queue.start();
+		
+		// when
+		queue.enqueue(7L, commentDto);
+		queue.enqueue(7L, stale);
+		queue.stop();
+		
+		// then
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "written").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("blog.comments.write_behind").tag("result", "invalid").counter().count()).isEqualTo(1);
+	}
+	
+	private CommentWriteBehindQueue newQueue(int capacity) {
+		writeAheadLog = this.newLog();
+		return new CommentWriteBehindQueue(commentService, new ObjectMapper(), meterRegistry, writeAheadLog, capacity, 100, 
+										   Duration.ofSeconds(5));
+	}
+	
+	private WriteAheadLog newLog() {
+		return new WriteAheadLog(directory, 64 * 1024, FsyncPolicy.GROUP, Duration.ZERO);
+	}
+}
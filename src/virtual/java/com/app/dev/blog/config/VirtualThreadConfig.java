@@ -0,0 +1,23 @@
+package com.app.dev.blog.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands every Tomcat request to its own virtual thread instead of the fixed
+ * worker pool. Only compiled by the {@code virtual-threads} Maven profile and
+ * only active with {@code blog.threads.virtual=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+	
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+	}
+}